@@ -0,0 +1,86 @@
+#!/bin/bash
+
+# Runs the download load test against the application on platform threads and on virtual threads
+# and prints the throughput and latency of both runs.
+#
+# Needs Java 21 on the PATH, k6 (https://k6.io) and a jar built with ./mvnw package on JDK 21.
+# Each mode starts a fresh application on the in-memory H2 database.
+#
+#   load-test/compare-virtual-threads.sh [--vus 1000] [--duration 60s] [--db-pool-size 10]
+
+set -euo pipefail
+
+VUS=1000
+DURATION="60s"
+DB_POOL_SIZE=10
+PORT=8091
+
+while [[ $# -gt 0 ]]; do
+  case $1 in
+    --vus)
+      VUS="$2"
+      shift 2
+      ;;
+    --duration)
+      DURATION="$2"
+      shift 2
+      ;;
+    --db-pool-size)
+      DB_POOL_SIZE="$2"
+      shift 2
+      ;;
+    *)
+      echo "Unknown option: $1"
+      exit 1
+      ;;
+  esac
+done
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/generatePdf-*.jar | grep -v original | head -1)
+RESULTS=load-test/results
+mkdir -p "$RESULTS"
+
+if ! java -version 2>&1 | grep -qE 'version "(2[1-9]|[3-9][0-9])'; then
+  echo "Java 21 or newer is required for virtual threads"
+  exit 1
+fi
+
+run() {
+  local mode=$1
+  echo "=== VIRTUAL_THREADS=$mode, $VUS concurrent downloads for $DURATION ==="
+
+  VIRTUAL_THREADS=$mode DB_POOL_SIZE=$DB_POOL_SIZE SERVER_PORT=$PORT \
+    java -jar "$JAR" --spring.jpa.show-sql=false > "$RESULTS/app-virtual-$mode.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null" EXIT
+
+  for _ in $(seq 1 60); do
+    curl -sf "http://localhost:$PORT/login" > /dev/null && break
+    sleep 1
+  done
+
+  k6 run --quiet -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DURATION="$DURATION" \
+    --summary-export "$RESULTS/virtual-$mode.json" load-test/offer-letter-downloads.js
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run false
+run true
+
+echo
+printf "%-16s %12s %10s %10s %10s %14s\n" "threads" "requests/s" "p50 ms" "p95 ms" "p99 ms" "checks failed"
+for mode in false true; do
+  python3 - "$RESULTS/virtual-$mode.json" "$mode" <<'EOF'
+import json, sys
+summary = json.load(open(sys.argv[1]))["metrics"]
+duration = summary["http_req_duration"]
+name = "virtual" if sys.argv[2] == "true" else "platform"
+print("%-16s %12.1f %10.1f %10.1f %10.1f %13.2f%%" % (
+    name, summary["iterations"]["rate"], duration["p(50)"], duration["p(95)"], duration["p(99)"],
+    100 * (1 - summary["checks"]["value"])))
+EOF
+done
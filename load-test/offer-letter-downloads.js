@@ -0,0 +1,84 @@
+// k6 load test: many concurrent clients downloading a stored offer letter
+//
+//   k6 run -e VUS=1000 -e DURATION=60s load-test/offer-letter-downloads.js
+//
+// setup() logs in as the admin once, generates one offer letter and shares the session with all
+// virtual users, so the measured requests are downloads only (no BCrypt logins, no rendering).
+// Each download is a session lookup, a user lookup, an offer letter query and a PDF streamed from
+// the blob store.
+
+import http from 'k6/http';
+import { check, fail } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8091';
+const ADMIN_USERNAME = __ENV.ADMIN_USERNAME || 'Admin';
+const ADMIN_PASSWORD = __ENV.ADMIN_PASSWORD || 'Admin123!';
+
+export const options = {
+    scenarios: {
+        downloads: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 1000),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        checks: ['rate>0.99'],
+    },
+};
+
+function csrfToken(path) {
+    const page = http.get(`${BASE_URL}${path}`);
+    const token = page.html().find('input[name="_csrf"]').attr('value');
+    if (!token) {
+        fail(`No CSRF token on ${path} (status ${page.status})`);
+    }
+    return token;
+}
+
+export function setup() {
+    const login = http.post(`${BASE_URL}/login`, {
+        username: ADMIN_USERNAME,
+        password: ADMIN_PASSWORD,
+        _csrf: csrfToken('/login'),
+    }, { redirects: 0 });
+    if (login.status !== 302 || login.headers.Location.includes('error')) {
+        fail(`Login as ${ADMIN_USERNAME} failed`);
+    }
+
+    const generated = http.post(`${BASE_URL}/generatePdf`, {
+        firstName: 'Load',
+        lastName: 'Test',
+        email: 'load-test@example.com',
+        domain: 'Engineering',
+        manager: 'Jane Doe',
+        role: 'Software Engineer',
+        joiningDate: '2025-01-06',
+        _csrf: csrfToken('/form'),
+    });
+    if (generated.status !== 200) {
+        fail(`Generating the offer letter failed with status ${generated.status}`);
+    }
+
+    const page = http.get(`${BASE_URL}/offerLetters?username=load-test@example.com&size=1`).json();
+    if (!page.items || page.items.length === 0) {
+        fail('The generated offer letter was not stored');
+    }
+
+    const session = http.cookieJar().cookiesForURL(BASE_URL).JSESSIONID;
+    return { session: session[0], id: page.items[0].id };
+}
+
+export default function (data) {
+    const res = http.get(`${BASE_URL}/downloadOfferLetter/${data.id}`, {
+        cookies: { JSESSIONID: data.session },
+        // A redirect means the download was refused
+        redirects: 0,
+        tags: { name: 'downloadOfferLetter' },
+    });
+    check(res, {
+        'status is 200': (r) => r.status === 200,
+        'is a PDF': (r) => (r.headers['Content-Type'] || '').startsWith('application/pdf'),
+    });
+}
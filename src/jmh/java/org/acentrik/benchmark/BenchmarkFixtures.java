@@ -0,0 +1,71 @@
+package org.acentrik.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acentrik.model.FormData;
+import org.acentrik.service.OfferLetterMetrics;
+import org.acentrik.service.OfferLetterTemplateService;
+import org.acentrik.service.PdfResourceRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Shared inputs for the benchmarks
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @return Form data for a typical offer letter
+     */
+    static FormData formData() {
+        FormData formData = new FormData();
+        formData.setFirstName("Jane");
+        formData.setLastName("Doe");
+        formData.setEmail("jane.doe@example.com");
+        formData.setManager("John Smith");
+        formData.setRole("Business Analyst");
+        formData.setJoiningDate(LocalDate.of(2025, 6, 2));
+        return formData;
+    }
+
+    /**
+     * Create a template service outside of a Spring context
+     *
+     * @return An initialized template service
+     */
+    static OfferLetterTemplateService templateService() {
+        return templateService(32 * 1024 * 1024);
+    }
+
+    /**
+     * Create a template service outside of a Spring context
+     *
+     * @param resourceCacheBytes The size of the font and image caches, 0 to load the resources for every letter
+     * @return An initialized template service
+     */
+    static OfferLetterTemplateService templateService(long resourceCacheBytes) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OfferLetterTemplateService templateService = new OfferLetterTemplateService();
+        ReflectionTestUtils.setField(templateService, "metrics", new OfferLetterMetrics(meterRegistry));
+        ReflectionTestUtils.setField(templateService, "resources",
+                new PdfResourceRegistry(new DefaultResourceLoader(), resourceCacheBytes, resourceCacheBytes, meterRegistry));
+        templateService.init();
+        return templateService;
+    }
+
+    /**
+     * @return A rendered offer letter
+     * @throws IOException If the PDF cannot be rendered
+     */
+    static byte[] pdf() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        templateService().render(formData(), out);
+        return out.toByteArray();
+    }
+}
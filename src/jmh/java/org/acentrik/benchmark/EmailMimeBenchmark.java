@@ -0,0 +1,58 @@
+package org.acentrik.benchmark;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.acentrik.service.EmailService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for assembling offer letter emails with {@link EmailService#createPdfMessage}
+ *
+ * The message is written to a null stream, because the attachment is only base64 encoded
+ * when the message is written to the SMTP connection. No connection is made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailMimeBenchmark {
+
+    private EmailService emailService;
+    private byte[] pdf;
+
+    @Setup
+    public void setUp() throws IOException {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        pdf = BenchmarkFixtures.pdf();
+    }
+
+    @Benchmark
+    public MimeMessage assemble() throws MessagingException, IOException {
+        MimeMessage message = emailService.createPdfMessage("jane.doe@example.com",
+                "Your Internship Offer from Acentrik Technology Solutions",
+                "Dear Jane Doe,\n\nPlease find your offer letter attached.", pdf, "JaneDoe_OfferLetter.pdf");
+        message.saveChanges();
+        message.writeTo(OutputStream.nullOutputStream());
+        return message;
+    }
+}
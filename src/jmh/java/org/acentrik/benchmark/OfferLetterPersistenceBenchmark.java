@@ -0,0 +1,92 @@
+package org.acentrik.benchmark;
+
+import org.acentrik.GeneratePdfApplication;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.User;
+import org.acentrik.service.OfferLetterGenerationService;
+import org.acentrik.service.OfferLetterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link OfferLetterService#saveOfferLetter} against an in-memory H2 database
+ *
+ * The application context is started once per fork, with the blob store in a temporary
+ * directory. The blob store keeps one copy of identical PDFs, so both unique and repeated
+ * content are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OfferLetterPersistenceBenchmark {
+
+    @Param({"false", "true"})
+    private boolean duplicateContent;
+
+    private ConfigurableApplicationContext context;
+    private Path blobRoot;
+    private OfferLetterService offerLetterService;
+    private User user;
+    private byte[] pdf;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws IOException {
+        blobRoot = Files.createTempDirectory("offer-letter-benchmark");
+        context = new SpringApplicationBuilder(GeneratePdfApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "app.storage.blob.root=" + blobRoot,
+                        "app.audit.file.enabled=false",
+                        "app.audit.jdbc.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        offerLetterService = context.getBean(OfferLetterService.class);
+        OfferLetterGenerationService generationService = context.getBean(OfferLetterGenerationService.class);
+        user = generationService.provisionEmployee("benchmark@example.com").getUser();
+        pdf = generationService.render(BenchmarkFixtures.formData());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(blobRoot);
+    }
+
+    @Benchmark
+    public OfferLetter saveOfferLetter() {
+        return offerLetterService.saveOfferLetter(user, "JaneDoe.pdf", duplicateContent ? pdf : uniqueContent());
+    }
+
+    private byte[] uniqueContent() {
+        // Bytes after %%EOF are ignored by PDF readers but give every letter a different hash
+        byte[] content = Arrays.copyOf(pdf, pdf.length + Long.BYTES);
+        ByteBuffer.wrap(content, pdf.length, Long.BYTES).putLong(sequence++);
+        return content;
+    }
+}
@@ -0,0 +1,98 @@
+package org.acentrik.benchmark;
+
+import org.acentrik.model.FormData;
+import org.acentrik.service.OfferLetterTemplateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for rendering offer letters with {@link OfferLetterTemplateService}
+ *
+ * The throughput benchmarks share one template service between threads, as the application
+ * does. renderWithoutCachedResources uses an empty resource cache, so the font program and
+ * logo are loaded and decoded for every letter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OfferLetterRenderBenchmark {
+
+    private OfferLetterTemplateService templateService;
+    private FormData formData;
+
+    @Setup
+    public void setUp() {
+        templateService = BenchmarkFixtures.templateService();
+        formData = BenchmarkFixtures.formData();
+    }
+
+    /**
+     * A template service whose resource cache keeps nothing
+     */
+    @State(Scope.Thread)
+    public static class UncachedTemplate {
+        OfferLetterTemplateService templateService;
+
+        @Setup
+        public void setUp() {
+            templateService = BenchmarkFixtures.templateService(0);
+        }
+    }
+
+    @Benchmark
+    public byte[] render() throws IOException {
+        return render(templateService);
+    }
+
+    @Benchmark
+    public byte[] renderWithoutCachedResources(UncachedTemplate uncached) throws IOException {
+        return render(uncached.templateService);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(1)
+    public byte[] renderThroughput1Thread() throws IOException {
+        return render(templateService);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    public byte[] renderThroughput4Threads() throws IOException {
+        return render(templateService);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(Threads.MAX)
+    public byte[] renderThroughputAllCores() throws IOException {
+        return render(templateService);
+    }
+
+    private byte[] render(OfferLetterTemplateService service) throws IOException {
+        // Same as OfferLetterGenerationService.render
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.render(formData, out);
+        return out.toByteArray();
+    }
+}
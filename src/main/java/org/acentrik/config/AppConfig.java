@@ -1,15 +1,85 @@
 package org.acentrik.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    /**
+     * Bounded executor for rendering offer letters in parallel.
+     * Rendering is CPU bound, so the pool is sized to the available cores and keeps platform threads.
+     * When the queue is full the submitting thread renders the row itself (CallerRunsPolicy): a batch
+     * is already streaming its ZIP when it submits rows, so a rejection would truncate the archive.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public ThreadPoolTaskExecutor pdfRenderExecutor(@Value("${app.pdf.batch.queue-capacity:100}") int queueCapacity) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-render-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Bounded executor for asynchronous offer letter generation jobs.
+     * Kept separate from the request threads and the batch render pool; when the queue is full
+     * new jobs are rejected (AbortPolicy) so callers get back-pressure instead of a growing backlog.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor offerLetterJobExecutor(@Value("${app.pdf.jobs.workers:2}") int workers,
+                                                         @Value("${app.pdf.jobs.queue-capacity:50}") int queueCapacity,
+                                                         Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("offer-letter-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        useVirtualThreads(executor, environment);
+        return executor;
+    }
+
+    /**
+     * Worker pool that delivers queued emails.
+     * SMTP delivery is I/O bound, so the pool size is configured rather than derived from the cores.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mailWorkerExecutor(@Value("${app.mail.queue.workers:4}") int workers,
+                                                     @Value("${app.mail.queue.worker-queue-capacity:100}") int queueCapacity,
+                                                     Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mail-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        useVirtualThreads(executor, environment);
+        return executor;
+    }
+
+    /**
+     * Start the pool's workers as virtual threads when spring.threads.virtual.enabled is set on Java 21+.
+     * The pool size and queue still limit the work in flight; a worker blocked on JDBC or SMTP
+     * just doesn't occupy a platform thread.
+     */
+    private static void useVirtualThreads(ThreadPoolTaskExecutor executor, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(executor.getThreadNamePrefix()).getVirtualThreadFactory());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package org.acentrik.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the BCrypt cost factor for this machine
+ *
+ * Each cost step doubles the work, so only the minimum cost is measured and the higher costs
+ * are extrapolated from it. The result is the highest cost whose estimated hashing time stays
+ * within the target, but never below the minimum cost.
+ */
+final class BCryptCostCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Calibrate the cost factor against a target hashing time
+     *
+     * @param targetMillis The target time for hashing one password in milliseconds
+     * @param minCost The lowest acceptable cost
+     * @param maxCost The highest cost to consider
+     * @return The calibrated cost
+     */
+    static int calibrate(long targetMillis, int minCost, int maxCost) {
+        String salt = BCrypt.gensalt(minCost);
+        // The first hash includes class loading and JIT warm-up
+        BCrypt.hashpw("calibration", salt);
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        int cost = costFor(bestNanos / 1_000_000.0, targetMillis, minCost, maxCost);
+        logger.info("BCrypt cost {} took {} ms, calibrated cost {} for a {} ms target",
+                minCost, String.format("%.1f", bestNanos / 1_000_000.0), cost, targetMillis);
+        return cost;
+    }
+
+    /**
+     * Get the highest cost whose hashing time, extrapolated from the minimum cost, fits the target
+     *
+     * @param minCostMillis The measured hashing time at the minimum cost
+     * @param targetMillis The target hashing time
+     * @param minCost The lowest acceptable cost
+     * @param maxCost The highest cost to consider
+     * @return The cost factor
+     */
+    static int costFor(double minCostMillis, long targetMillis, int minCost, int maxCost) {
+        int cost = minCost;
+        double estimate = minCostMillis;
+        while (cost < maxCost && estimate * 2 <= targetMillis) {
+            cost++;
+            estimate *= 2;
+        }
+        return cost;
+    }
+}
@@ -1,5 +1,7 @@
 package org.acentrik.config;
 
+import org.acentrik.model.AuditEventType;
+import org.acentrik.service.AuditService;
 import org.acentrik.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
@@ -22,13 +24,16 @@ public class CustomAuthenticationEventPublisher implements AuthenticationEventPu
 
     private final ApplicationEventPublisher applicationEventPublisher;
     private final UserService userService;
+    private final AuditService auditService;
 
     @Autowired
     public CustomAuthenticationEventPublisher(
             ApplicationEventPublisher applicationEventPublisher,
-            UserService userService) {
+            UserService userService,
+            AuditService auditService) {
         this.applicationEventPublisher = applicationEventPublisher;
         this.userService = userService;
+        this.auditService = auditService;
     }
 
     @Override
@@ -36,6 +41,7 @@ public class CustomAuthenticationEventPublisher implements AuthenticationEventPu
         // Record successful login to reset failed attempts counter
         String username = authentication.getName();
         userService.recordSuccessfulLogin(username);
+        auditService.logAuthEvent(username, AuditEventType.LOGIN_SUCCESS, null);
         
         // Publish the standard success event
         applicationEventPublisher.publishEvent(new AuthenticationSuccessEvent(authentication));
@@ -50,6 +56,9 @@ public class CustomAuthenticationEventPublisher implements AuthenticationEventPu
             // Record failed login attempt
             boolean isLocked = userService.recordFailedLogin(username);
             
+            auditService.logAuthEvent(username, isLocked ? AuditEventType.ACCOUNT_LOCKED : AuditEventType.LOGIN_FAILURE,
+                    "Bad credentials");
+
             if (isLocked) {
                 // If account is now locked, publish a locked event
                 LockedException lockedException = new LockedException(
@@ -62,6 +71,8 @@ public class CustomAuthenticationEventPublisher implements AuthenticationEventPu
                         new AuthenticationFailureBadCredentialsEvent(authentication, exception));
             }
         } else {
+            auditService.logAuthEvent(username, AuditEventType.LOGIN_FAILURE, exception.getClass().getSimpleName());
+
             // For other types of failures, just publish the event
             if (exception instanceof LockedException) {
                 applicationEventPublisher.publishEvent(
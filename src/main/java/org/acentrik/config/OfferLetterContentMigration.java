@@ -0,0 +1,141 @@
+package org.acentrik.config;
+
+import jakarta.annotation.PostConstruct;
+import org.acentrik.service.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Moves offer letter PDFs from the legacy offer_letters.content LOB column into the blob store
+ *
+ * Runs on startup once Hibernate has updated the schema and before the web server accepts
+ * requests: every row with content but no content reference is copied into the blob store and
+ * updated with the reference, hash and size. When all rows are migrated the legacy column is
+ * dropped, so later startups skip the migration. Rows that fail keep their legacy content, which
+ * {@link org.acentrik.service.OfferLetterService} still serves, and are retried on the next startup.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class OfferLetterContentMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferLetterContentMigration.class);
+
+    private static final String TABLE = "offer_letters";
+    private static final String LEGACY_COLUMN = "content";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final BlobStore blobStore;
+
+    @Autowired
+    public OfferLetterContentMigration(JdbcTemplate jdbcTemplate, DataSource dataSource, BlobStore blobStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.blobStore = blobStore;
+    }
+
+    /**
+     * Migrate the legacy content, if the legacy column still exists
+     *
+     * @throws SQLException If the schema cannot be inspected or changed
+     */
+    @PostConstruct
+    public void migrate() throws SQLException {
+        if (!hasLegacyColumn()) {
+            return;
+        }
+
+        // New offer letters no longer set the legacy column, so it must accept nulls while migrating
+        allowNullLegacyColumn();
+
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM offer_letters WHERE content IS NOT NULL AND content_ref IS NULL", Long.class);
+        logger.info("Migrating {} offer letters to the blob store", ids.size());
+
+        int failed = 0;
+        for (Long id : ids) {
+            try {
+                migrateRow(id);
+            } catch (Exception e) {
+                failed++;
+                logger.error("Failed to migrate content of offer letter {}: {}", id, e.getMessage());
+            }
+        }
+
+        if (failed > 0) {
+            // Keep the legacy column so the remaining rows are retried on the next startup
+            logger.warn("{} offer letters could not be migrated, keeping the legacy content column", failed);
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE offer_letters DROP COLUMN content");
+        logger.info("Offer letter content migration complete, dropped the legacy content column");
+    }
+
+    private void migrateRow(Long id) {
+        // Stream each LOB into the blob store instead of loading it onto the heap
+        BlobStore.StoredBlob blob = jdbcTemplate.query(
+                "SELECT content FROM offer_letters WHERE id = ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    try (InputStream in = rs.getBinaryStream(1)) {
+                        return blobStore.store(in);
+                    } catch (java.io.IOException e) {
+                        throw new SQLException("Failed to store content in the blob store", e);
+                    }
+                },
+                id);
+
+        if (blob != null) {
+            jdbcTemplate.update(
+                    "UPDATE offer_letters SET content_ref = ?, content_hash = ?, content_length = ? WHERE id = ?",
+                    blob.getRef(), blob.getHash(), blob.getSize(), id);
+        }
+    }
+
+    private void allowNullLegacyColumn() throws SQLException {
+        String product;
+        try (Connection connection = dataSource.getConnection()) {
+            product = connection.getMetaData().getDatabaseProductName();
+        }
+
+        if ("MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product)) {
+            jdbcTemplate.execute("ALTER TABLE offer_letters MODIFY content LONGBLOB NULL");
+        } else if ("H2".equalsIgnoreCase(product)) {
+            jdbcTemplate.execute("ALTER TABLE offer_letters ALTER COLUMN content SET NULL");
+        } else {
+            logger.warn("Don't know how to make the legacy content column nullable on {}", product);
+        }
+    }
+
+    private boolean hasLegacyColumn() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Identifier case depends on the database, so match case-insensitively
+            for (String table : new String[]{TABLE, TABLE.toUpperCase()}) {
+                try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, null)) {
+                    while (columns.next()) {
+                        if (LEGACY_COLUMN.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
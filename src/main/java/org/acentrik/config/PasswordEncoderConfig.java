@@ -0,0 +1,72 @@
+package org.acentrik.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Password hashing configuration
+ *
+ * The BCrypt cost is calibrated on startup so one hash takes about the target time on this
+ * machine, unless a fixed cost is configured. New hashes are stored with a {bcrypt} prefix;
+ * legacy unprefixed hashes still match and, like hashes with a lower cost, are re-hashed on
+ * the next successful login. Hashing runs on a bounded pool sized to the cores, so a login
+ * storm queues up instead of occupying every CPU.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    /**
+     * Bounded executor for password hashing.
+     * BCrypt is CPU bound, so the pool is sized to the available cores; when the queue is full
+     * new hashes are rejected (AbortPolicy) instead of piling up behind the others.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${app.security.hashing.threads:0}") int threads,
+                                                          @Value("${app.security.hashing.queue-capacity:200}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean
+    public PooledPasswordEncoder passwordEncoder(
+            @Value("${app.security.bcrypt.cost:0}") int cost,
+            @Value("${app.security.bcrypt.target-ms:250}") long targetMillis,
+            @Value("${app.security.bcrypt.min-cost:10}") int minCost,
+            @Value("${app.security.bcrypt.max-cost:16}") int maxCost,
+            @Value("${app.security.hashing.timeout-ms:10000}") long timeoutMillis,
+            @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        int strength = cost > 0 ? cost : BCryptCostCalibrator.calibrate(targetMillis, minCost, maxCost);
+        logger.info("Hashing passwords with BCrypt cost {}", strength);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID,
+                Map.of(BCRYPT_ID, new BCryptPasswordEncoder(strength)));
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt hashes
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(strength));
+
+        return new PooledPasswordEncoder(delegating, passwordHashingExecutor, timeoutMillis,
+                meterRegistry.getIfAvailable());
+    }
+}
@@ -0,0 +1,149 @@
+package org.acentrik.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Password encoder that runs hashing on the bounded password hashing pool
+ *
+ * The calling thread waits for the result, but at most as many hashes run at once as the pool
+ * has threads, which leaves CPU for the rest of the application during a login storm.
+ * When the pool's queue is full, encoding fails with a {@link TaskRejectedException} and
+ * verification with an {@link AuthenticationServiceException}, which fails the login without
+ * counting it as a bad password. Rejections are counted as security.password.hashing.rejected,
+ * hashing time including the wait is recorded as security.password.hashing.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMillis;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter encodeRejections;
+    private final Counter matchesRejections;
+
+    /**
+     * @param delegate The encoder doing the actual hashing
+     * @param executor The pool to hash on
+     * @param timeoutMillis How long to wait for a hash, including time spent queued
+     * @param meterRegistry The registry for the hashing metrics, may be null
+     */
+    public PooledPasswordEncoder(PasswordEncoder delegate, ThreadPoolTaskExecutor executor, long timeoutMillis,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        if (meterRegistry != null) {
+            this.encodeTimer = Timer.builder("security.password.hashing").tag("operation", "encode").register(meterRegistry);
+            this.matchesTimer = Timer.builder("security.password.hashing").tag("operation", "matches").register(meterRegistry);
+            this.encodeRejections = Counter.builder("security.password.hashing.rejected").tag("operation", "encode").register(meterRegistry);
+            this.matchesRejections = Counter.builder("security.password.hashing.rejected").tag("operation", "matches").register(meterRegistry);
+        } else {
+            this.encodeTimer = null;
+            this.matchesTimer = null;
+            this.encodeRejections = null;
+            this.matchesRejections = null;
+        }
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        try {
+            return run(() -> delegate.encode(rawPassword), encodeTimer, encodeRejections);
+        } catch (TimeoutException e) {
+            throw new TaskRejectedException("Password hashing timed out", e);
+        }
+    }
+
+    /**
+     * Encode a password on the pool without waiting for the result
+     * Lets bulk operations hash many passwords in parallel; callers should limit how many
+     * they have in flight, as the pool's queue is shared with logins.
+     *
+     * @param rawPassword The password to encode
+     * @return The future encoded password
+     * @throws TaskRejectedException If the pool's queue is full
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        CompletableFuture<String> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> delegate.encode(rawPassword), executor);
+        } catch (TaskRejectedException e) {
+            if (encodeRejections != null) {
+                encodeRejections.increment();
+            }
+            throw e;
+        }
+        if (encodeTimer != null) {
+            future.whenComplete((hash, e) -> encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        }
+        return future;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try {
+            return run(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer, matchesRejections);
+        } catch (TaskRejectedException | TimeoutException e) {
+            throw new AuthenticationServiceException("Too many logins in progress, please try again", e);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only parses the hash prefix, cheap enough for the calling thread
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task, Timer timer, Counter rejections) throws TimeoutException {
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException e) {
+            if (rejections != null) {
+                rejections.increment();
+            }
+            throw e;
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            if (rejections != null) {
+                rejections.increment();
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        } finally {
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.acentrik.config;
 
 import org.acentrik.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationEventPublisher;
@@ -11,7 +12,6 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
@@ -27,6 +27,10 @@ public class SecurityConfig {
     private final PasswordEncoder passwordEncoder;
     private final CustomAuthenticationEventPublisher authenticationEventPublisher;
 
+    // Actuator port, -1 when the actuator shares the application port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Autowired
     public SecurityConfig(
             UserService userService, 
@@ -42,6 +46,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userService);
         provider.setPasswordEncoder(passwordEncoder);
+        // Re-hash passwords stored with an outdated encoding or cost after a successful login
+        provider.setUserDetailsPasswordService(userService);
         return provider;
     }
 
@@ -69,14 +75,23 @@ public class SecurityConfig {
                 .requestMatchers("/register").permitAll()
                 .requestMatchers("/forgot-password").permitAll()
                 .requestMatchers("/reset-password").permitAll()
+                // Scraped by Prometheus without a session, only on the separate management port
+                .requestMatchers(request -> request.getLocalPort() == managementPort
+                        && new AntPathRequestMatcher("/actuator/prometheus").matches(request)).permitAll()
                 .requestMatchers("/form").hasRole("ADMIN")
                 .requestMatchers("/generatePdf").hasAnyRole("ADMIN", "USER")
+                .requestMatchers("/generatePdfJobs/**").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/eform").hasRole("ADMIN")
                 .requestMatchers("/emailPdf").hasRole("ADMIN")
+                .requestMatchers("/generatePdfBatch").hasRole("ADMIN")
+                .requestMatchers("/mergedOfferLetters").hasRole("ADMIN")
+                .requestMatchers("/emailStatus/**").hasRole("ADMIN")
                 .requestMatchers("/dashboard").hasRole("ADMIN")
+                .requestMatchers("/importEmployees").hasRole("ADMIN")
                 .requestMatchers("/profile").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/viewOfferLetter").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/downloadOfferLetter").hasAnyRole("ADMIN", "USER")
+                .requestMatchers("/stream/**").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/updateProfile").hasAnyRole("ADMIN", "USER")
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,439 @@
+package org.acentrik.controller;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.acentrik.model.AuditEventType;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.service.AuditService;
+import org.acentrik.service.OfferLetterMetrics;
+import org.acentrik.service.OfferLetterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes stored offer letter PDFs to HTTP responses
+ *
+ * The PDF is streamed from the blob store instead of being loaded onto the heap. When the
+ * servlet container supports sendfile and the blob is a local file, the container sends it
+ * straight from the file; otherwise it is copied with {@link FileChannel#transferTo}.
+ * Single byte ranges are supported so PDF viewers can fetch pages incrementally, and the
+ * stored content hash is used as ETag for conditional requests. {@link #writeAsync} sends the
+ * same response with non-blocking servlet I/O instead.
+ */
+@Component
+public class OfferLetterContentWriter {
+
+    // Request attributes Tomcat uses to hand a file over to the connector's sendfile support
+    static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    // Offer letters are never modified, so a URL naming one letter can be cached for a year
+    static final String IMMUTABLE_CACHE_CONTROL = "private, max-age=31536000, immutable";
+    // The latest letter endpoints can start serving a different letter, so clients revalidate with the ETag
+    static final String REVALIDATE_CACHE_CONTROL = "private, no-cache";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private OfferLetterService offerLetterService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private OfferLetterMetrics metrics;
+
+    // How long a non-blocking download may take before the container aborts it
+    @Value("${app.offer-letters.async-timeout-ms:600000}")
+    private long asyncTimeoutMillis = 600000;
+
+    /**
+     * Write an offer letter PDF, honouring conditional requests and a single byte range
+     * The content hash is sent as a strong ETag, so a client that already holds the PDF
+     * gets a 304 without the blob being opened.
+     *
+     * @param offerLetter The offer letter to write
+     * @param inline true to display the PDF in the browser, false to download it as an attachment
+     * @param immutable true if the URL always identifies this exact PDF, so clients may cache it indefinitely
+     * @param request The HTTP request
+     * @param response The HTTP response
+     * @throws IOException If the PDF cannot be read or written
+     */
+    public void write(OfferLetter offerLetter, boolean inline, boolean immutable, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        Transfer transfer = prepare(offerLetter, inline, immutable, request, response);
+        if (transfer == null) {
+            return;
+        }
+
+        try (SeekableByteChannel channel = transfer.channel) {
+            Optional<Path> file = offerLetterService.localContentPath(offerLetter);
+            if (file.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+                // The connector sends the file once the handler returns, without copying it through the JVM
+                request.setAttribute(SENDFILE_FILENAME_ATTR, file.get().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START_ATTR, transfer.start);
+                request.setAttribute(SENDFILE_END_ATTR, transfer.start + transfer.count);
+                // The connector's write isn't timed, only its bytes are counted
+                metrics.recordStreamed(transfer.count);
+                return;
+            }
+
+            Timer.Sample sample = Timer.start();
+            try (OutputStream out = response.getOutputStream()) {
+                copy(channel, transfer.start, transfer.count, out);
+            } finally {
+                sample.stop(metrics.streamTimer());
+            }
+            metrics.recordStreamed(transfer.count);
+        }
+    }
+
+    /**
+     * Write an offer letter PDF with non-blocking servlet I/O
+     * Headers, conditional requests and ranges are handled as in
+     * {@link #write(OfferLetter, boolean, boolean, HttpServletRequest, HttpServletResponse)}. The body is
+     * then written from a {@link WriteListener}: a chunk is read from storage only when the connection
+     * can take it, so the request thread returns right away and a slow client holds no thread while
+     * it reads.
+     *
+     * @param offerLetter The offer letter to write
+     * @param inline true to display the PDF in the browser, false to download it as an attachment
+     * @param immutable true if the URL always identifies this exact PDF, so clients may cache it indefinitely
+     * @param request The HTTP request, which must support async processing
+     * @param response The HTTP response
+     * @throws IOException If the PDF cannot be opened
+     */
+    public void writeAsync(OfferLetter offerLetter, boolean inline, boolean immutable, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        Transfer transfer = prepare(offerLetter, inline, immutable, request, response);
+        if (transfer == null) {
+            return;
+        }
+
+        try {
+            AsyncContext asyncContext = request.startAsync();
+            asyncContext.setTimeout(asyncTimeoutMillis);
+            ServletOutputStream out = response.getOutputStream();
+            ChunkedChannelWriter writer = new ChunkedChannelWriter(transfer, asyncContext, out);
+            asyncContext.addListener(writer);
+            out.setWriteListener(writer);
+        } catch (IllegalStateException | IOException e) {
+            transfer.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Set the headers and status for an offer letter response and open the stored PDF
+     *
+     * @return The part of the PDF to send, or null if the response is already complete
+     */
+    private Transfer prepare(OfferLetter offerLetter, boolean inline, boolean immutable, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        String etag = offerLetter.getContentHash() != null ? "\"" + offerLetter.getContentHash() + "\"" : null;
+        if (etag != null) {
+            response.setHeader("ETag", etag);
+        }
+        // Setting Cache-Control also stops Spring Security from adding its no-store defaults
+        response.setHeader("Cache-Control", immutable ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+
+        if (etag != null && matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+
+        SeekableByteChannel channel = offerLetterService.openChannel(offerLetter);
+        try {
+            long length = offerLetter.getContentLength() != null ? offerLetter.getContentLength() : channel.size();
+
+            response.setContentType("application/pdf");
+            response.setHeader("Content-Disposition",
+                    (inline ? "inline" : "attachment") + "; filename=\"" + offerLetter.getFileName() + "\"");
+            response.setHeader("Accept-Ranges", "bytes");
+
+            long start = 0;
+            long end = length - 1;
+            // If-Range only allows a partial response while the client's copy is still current
+            String ifRange = request.getHeader("If-Range");
+            ByteRange range = ifRange == null || ifRange.equals(etag) ? parseRange(request.getHeader("Range"), length) : null;
+            if (range == ByteRange.UNSATISFIABLE) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                channel.close();
+                return null;
+            }
+            if (range != null) {
+                start = range.start;
+                end = range.end;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+            }
+            long count = end - start + 1;
+            response.setContentLengthLong(count);
+
+            if ("HEAD".equals(request.getMethod()) || count == 0) {
+                channel.close();
+                return null;
+            }
+            // Viewers fetch a PDF in many ranges, only the request for its start counts as an access
+            if (start == 0) {
+                audit(offerLetter, inline, request);
+            }
+            return new Transfer(channel, start, count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void audit(OfferLetter offerLetter, boolean inline, HttpServletRequest request) {
+        String username = request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : null;
+        String owner = offerLetter.getUser() != null ? offerLetter.getUser().getUsername() : null;
+        auditService.logOfferLetterEvent(username, inline ? AuditEventType.OFFER_LETTER_VIEW : AuditEventType.OFFER_LETTER_DOWNLOAD,
+                offerLetter.getId(), owner, offerLetter.getFileName());
+    }
+
+    /**
+     * Check an If-None-Match header against an ETag using weak comparison, as RFC 9110 requires
+     *
+     * @param header The If-None-Match header value, may be null
+     * @param etag The current strong ETag
+     * @return true if the client's copy matches the current content
+     */
+    static boolean matches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void copy(SeekableByteChannel channel, long start, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        if (channel instanceof FileChannel fileChannel) {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = fileChannel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    throw new IOException("Stored offer letter ended before the expected length");
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            return;
+        }
+
+        channel.position(start);
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(COPY_BUFFER_SIZE, count));
+        long remaining = count;
+        while (remaining > 0) {
+            buffer.clear();
+            if (remaining < buffer.capacity()) {
+                buffer.limit((int) remaining);
+            }
+            int read = channel.read(buffer);
+            if (read < 0) {
+                throw new IOException("Stored offer letter ended before the expected length");
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            remaining -= read;
+        }
+    }
+
+    /**
+     * Parse a Range header
+     * Only a single byte range is supported; a header with several ranges or another unit is
+     * ignored, which makes the server send the whole PDF as allowed by RFC 9110.
+     *
+     * @param header The Range header value, may be null
+     * @param length The length of the content
+     * @return The requested range, null to send the whole content, or {@link ByteRange#UNSATISFIABLE}
+     */
+    static ByteRange parseRange(String header, long length) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.contains(",")) {
+            return null;
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return ByteRange.UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(length - suffix, 0), length - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start < 0 || start >= length) {
+                return ByteRange.UNSATISFIABLE;
+            }
+            if (end < start) {
+                return null;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * An open stored PDF and the part of it to send
+     */
+    private static final class Transfer {
+        final SeekableByteChannel channel;
+        final long start;
+        final long count;
+
+        Transfer(SeekableByteChannel channel, long start, long count) {
+            this.channel = channel;
+            this.start = start;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Copies a stored PDF to a non-blocking response one chunk at a time
+     * The container calls {@link #onWritePossible()} whenever the connection can take more data;
+     * the writer stops as soon as {@link ServletOutputStream#isReady()} reports a full socket buffer,
+     * so at most one chunk per response is held in memory.
+     */
+    private final class ChunkedChannelWriter implements WriteListener, AsyncListener {
+        private final SeekableByteChannel channel;
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream out;
+        private final byte[] chunk;
+        private final Timer.Sample sample = Timer.start();
+        private long position;
+        private long remaining;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        ChunkedChannelWriter(Transfer transfer, AsyncContext asyncContext, ServletOutputStream out) {
+            this.channel = transfer.channel;
+            this.asyncContext = asyncContext;
+            this.out = out;
+            this.chunk = new byte[(int) Math.min(COPY_BUFFER_SIZE, transfer.count)];
+            this.position = transfer.start;
+            this.remaining = transfer.count;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (out.isReady()) {
+                if (remaining == 0) {
+                    sample.stop(metrics.streamTimer());
+                    close();
+                    asyncContext.complete();
+                    return;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, remaining));
+                channel.position(position);
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    throw new IOException("Stored offer letter ended before the expected length");
+                }
+                out.write(chunk, 0, read);
+                metrics.recordStreamed(read);
+                position += read;
+                remaining -= read;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // The client went away or the PDF could not be read; the container completes the request
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing more is read from it
+            }
+        }
+    }
+
+    /**
+     * An inclusive byte range
+     */
+    static final class ByteRange {
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        final long start;
+        final long end;
+
+        ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
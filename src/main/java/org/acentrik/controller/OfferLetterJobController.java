@@ -0,0 +1,141 @@
+package org.acentrik.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.OfferLetterJobStatus;
+import org.acentrik.service.OfferLetterJob;
+import org.acentrik.service.OfferLetterJobService;
+import org.acentrik.service.OfferLetterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Controller for asynchronous offer letter generation jobs
+ *
+ * A job is submitted with the same form data as /generatePdf and answered with 202 and the
+ * job status. Clients then poll the status or subscribe to its server-sent events, and
+ * download the offer letter once the job has completed. Jobs are only visible to the user
+ * who submitted them and to admins.
+ */
+@Controller
+@RequestMapping("/generatePdfJobs")
+public class OfferLetterJobController {
+
+    private final OfferLetterJobService offerLetterJobService;
+    private final OfferLetterService offerLetterService;
+    private final OfferLetterContentWriter offerLetterContentWriter;
+
+    @Value("${app.pdf.jobs.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+
+    @Autowired
+    public OfferLetterJobController(OfferLetterJobService offerLetterJobService,
+                                    OfferLetterService offerLetterService,
+                                    OfferLetterContentWriter offerLetterContentWriter) {
+        this.offerLetterJobService = offerLetterJobService;
+        this.offerLetterService = offerLetterService;
+        this.offerLetterContentWriter = offerLetterContentWriter;
+    }
+
+    /**
+     * Submit an offer letter generation job
+     *
+     * @param formData The form data for the letter
+     * @return 202 with the job status, 400 for invalid form data, or 429 when the job queue is full
+     */
+    @PostMapping
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> submitJob(@ModelAttribute FormData formData) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        try {
+            OfferLetterJob job = offerLetterJobService.submit(formData, auth.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header("Location", "/generatePdfJobs/" + job.getId())
+                    .body(job.toStatus());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(retryAfterSeconds))
+                    .body(Map.of("error", "Too many offer letters are being generated, please retry later"));
+        }
+    }
+
+    /**
+     * Get the status of a job
+     *
+     * @param id The job ID
+     * @return The job status, or 404 if the job doesn't exist or belongs to another user
+     */
+    @GetMapping("/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable String id) {
+        return findAccessibleJob(id)
+                .map(job -> ResponseEntity.ok(job.toStatus()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Subscribe to the status events of a job
+     *
+     * @param id The job ID
+     * @return An event stream with a "status" event per state change, or 404
+     */
+    @GetMapping(value = "/{id}/events", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable String id) {
+        return findAccessibleJob(id)
+                .map(job -> ResponseEntity.ok(offerLetterJobService.subscribe(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Download the offer letter generated by a completed job
+     *
+     * @param id The job ID
+     * @param request The HTTP request
+     * @param response The HTTP response
+     * @throws java.io.IOException If an I/O error occurs
+     */
+    @GetMapping("/{id}/download")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+        Optional<OfferLetterJob> jobOpt = findAccessibleJob(id);
+        if (jobOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        OfferLetterJob job = jobOpt.get();
+        if (job.getStatus() != OfferLetterJobStatus.COMPLETED) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "Job is " + job.getStatus());
+            return;
+        }
+
+        Optional<OfferLetter> offerLetterOpt = offerLetterService.getOfferLetterById(job.getOfferLetterId());
+        if (offerLetterOpt.isEmpty()) {
+            // Removed after the job completed
+            response.sendError(HttpServletResponse.SC_GONE);
+            return;
+        }
+        offerLetterContentWriter.write(offerLetterOpt.get(), false, true, request, response);
+    }
+
+    private Optional<OfferLetterJob> findAccessibleJob(String id) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        return offerLetterJobService.getJob(id)
+                .filter(job -> isAdmin || job.getOwner().equals(auth.getName()));
+    }
+}
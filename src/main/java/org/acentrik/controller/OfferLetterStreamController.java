@@ -0,0 +1,121 @@
+package org.acentrik.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.User;
+import org.acentrik.service.OfferLetterService;
+import org.acentrik.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+/**
+ * Offer letter view and download endpoints that stream with non-blocking servlet I/O
+ *
+ * The counterparts of /viewOfferLetter and /downloadOfferLetter under /stream. Responses are
+ * the same, including Range and conditional requests, but the PDF is written from a
+ * WriteListener as the client reads it, so slow clients don't hold a request thread for the
+ * whole transfer. Users can open their own offer letters and admins any offer letter; other
+ * requests are redirected to the profile page.
+ */
+@Controller
+@RequestMapping("/stream")
+public class OfferLetterStreamController {
+
+    private final UserService userService;
+    private final OfferLetterService offerLetterService;
+    private final OfferLetterContentWriter offerLetterContentWriter;
+
+    @Autowired
+    public OfferLetterStreamController(UserService userService,
+                                       OfferLetterService offerLetterService,
+                                       OfferLetterContentWriter offerLetterContentWriter) {
+        this.userService = userService;
+        this.offerLetterService = offerLetterService;
+        this.offerLetterContentWriter = offerLetterContentWriter;
+    }
+
+    /**
+     * View the current user's latest offer letter in the browser
+     */
+    @GetMapping("/viewOfferLetter")
+    public void viewOfferLetter(HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+        writeLatest(true, request, response);
+    }
+
+    /**
+     * Download the current user's latest offer letter
+     */
+    @GetMapping("/downloadOfferLetter")
+    public void downloadOfferLetter(HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+        writeLatest(false, request, response);
+    }
+
+    /**
+     * View a specific offer letter in the browser
+     *
+     * @param id The ID of the offer letter
+     */
+    @GetMapping("/viewOfferLetter/{id}")
+    public void viewOfferLetterById(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+        writeById(id, true, request, response);
+    }
+
+    /**
+     * Download a specific offer letter
+     *
+     * @param id The ID of the offer letter
+     */
+    @GetMapping("/downloadOfferLetter/{id}")
+    public void downloadOfferLetterById(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+        writeById(id, false, request, response);
+    }
+
+    private void writeLatest(boolean inline, HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+        Optional<User> userOpt = currentUser();
+        if (userOpt.isPresent()) {
+            Optional<OfferLetter> offerLetterOpt = offerLetterService.getLatestOfferLetterForUser(userOpt.get());
+            if (offerLetterOpt.isPresent()) {
+                offerLetterContentWriter.writeAsync(offerLetterOpt.get(), inline, false, request, response);
+                return;
+            }
+        }
+
+        // If no offer letter found, redirect to profile page
+        response.sendRedirect("/profile");
+    }
+
+    private void writeById(Long id, boolean inline, HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+        Optional<User> userOpt = currentUser();
+        if (userOpt.isPresent()) {
+            User user = userOpt.get();
+            Optional<OfferLetter> offerLetterOpt = offerLetterService.getOfferLetterById(id);
+
+            if (offerLetterOpt.isPresent()) {
+                OfferLetter offerLetter = offerLetterOpt.get();
+
+                // Same check as PdfController: the owner or an admin
+                if (offerLetter.getUser().getId().equals(user.getId()) || user.getRole().equals("ADMIN")) {
+                    offerLetterContentWriter.writeAsync(offerLetter, inline, true, request, response);
+                    return;
+                }
+            }
+        }
+
+        // If no offer letter found or user doesn't have permission, redirect to profile page
+        response.sendRedirect("/profile");
+    }
+
+    private Optional<User> currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName().equals("anonymousUser")) {
+            return Optional.empty();
+        }
+        return userService.getUserByUsername(auth.getName());
+    }
+}
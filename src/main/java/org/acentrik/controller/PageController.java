@@ -1,9 +1,15 @@
 package org.acentrik.controller;
 
+import org.acentrik.model.AuditEventType;
+import org.acentrik.model.EmployeeImportResult;
 import org.acentrik.model.User;
+import org.acentrik.model.UserOfferLetterSummary;
+import org.acentrik.service.AuditService;
+import org.acentrik.service.EmployeeImportService;
 import org.acentrik.service.UserService;
 import org.acentrik.service.OfferLetterService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -11,9 +17,14 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -25,6 +36,12 @@ public class PageController {
     @Autowired
     private OfferLetterService offerLetterService;
 
+    @Autowired
+    private EmployeeImportService employeeImportService;
+
+    @Autowired
+    private AuditService auditService;
+
     @GetMapping("/")
     public String index(Model model) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -102,22 +119,10 @@ public class PageController {
 
             // If user is admin, get all users and their offer letters
             if (auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-                List<User> users = userService.getAllUsers();
+                // One query for all users and the metadata of their latest offer letter
+                List<UserOfferLetterSummary> users = offerLetterService.getUsersWithLatestOfferLetter();
                 model.addAttribute("users", users);
 
-                // Create a map to store offer letters by user ID
-                java.util.Map<Long, org.acentrik.model.OfferLetter> offerLetterMap = new java.util.HashMap<>();
-
-                // Fetch offer letters for each user
-                for (User user : users) {
-                    offerLetterService.getLatestOfferLetterForUser(user).ifPresent(offerLetter -> {
-                        offerLetterMap.put(user.getId(), offerLetter);
-                    });
-                }
-
-                // Add the map to the model
-                model.addAttribute("offerLetterMap", offerLetterMap);
-
                 // Check if an offer letter was just downloaded
                 Boolean offerLetterDownloaded = (Boolean) session.getAttribute("offerLetterDownloaded");
                 if (offerLetterDownloaded != null && offerLetterDownloaded) {
@@ -147,6 +152,25 @@ public class PageController {
         return "redirect:/dashboard";
     }
 
+    /**
+     * Import employee accounts from an uploaded CSV file
+     * Expected columns: username (or email) and an optional password
+     *
+     * @param file The uploaded CSV file
+     * @return The accepted and rejected rows, or 400 if the file cannot be imported
+     * @throws IOException If the upload cannot be read
+     */
+    @PostMapping("/importEmployees")
+    @ResponseBody
+    public ResponseEntity<?> importEmployees(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            EmployeeImportResult result = employeeImportService.importCsv(in);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/profile")
     public String profile(Model model) {
         // Get the current user
@@ -220,8 +244,11 @@ public class PageController {
 
             try {
                 // Attempt to delete the user
+                Optional<User> target = userService.getUserById(userId);
                 boolean deleted = userService.deleteUserById(userId);
                 if (deleted) {
+                    auditService.logUserManagementEvent(auth.getName(), AuditEventType.USER_TERMINATE,
+                            target.map(User::getUsername).orElse(null), "User ID " + userId);
                     redirectAttributes.addFlashAttribute("successMessage", "Employee terminated successfully");
                 } else {
                     redirectAttributes.addFlashAttribute("errorMessage", "Employee not found");
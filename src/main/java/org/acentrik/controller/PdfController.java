@@ -1,46 +1,53 @@
 package org.acentrik.controller;
 
 
-import com.itextpdf.io.exceptions.IOException;
-import com.itextpdf.io.font.constants.StandardFonts;
-import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.element.Text;
-import com.itextpdf.layout.element.Image;
-import com.itextpdf.io.image.ImageDataFactory;
-import com.itextpdf.layout.properties.TextAlignment;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.acentrik.model.AuditEventType;
 import org.acentrik.model.FormData;
 import org.acentrik.model.OfferLetter;
+import org.acentrik.model.OfferLetterFilter;
+import org.acentrik.model.OfferLetterPage;
+import org.acentrik.model.OutboundEmail;
 import org.acentrik.model.User;
-import org.acentrik.service.EmailService;
+import org.acentrik.service.AuditService;
+import org.acentrik.service.EmailQueueService;
+import org.acentrik.service.OfferLetterBatchService;
+import org.acentrik.service.OfferLetterGenerationService;
+import org.acentrik.service.OfferLetterMergeService;
+import org.acentrik.service.OfferLetterMetrics;
 import org.acentrik.service.OfferLetterService;
+import org.acentrik.service.OfferLetterTemplateService;
 import org.acentrik.service.UserService;
 import org.acentrik.service.PasswordValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
-import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
 public class PdfController {
 
+    private static final Logger logger = LoggerFactory.getLogger(PdfController.class);
+
     @Autowired
-    private EmailService emailService;
+    private EmailQueueService emailQueueService;
 
     @Autowired
     private UserService userService;
@@ -51,6 +58,27 @@ public class PdfController {
     @Autowired
     private PasswordValidator passwordValidator;
 
+    @Autowired
+    private OfferLetterTemplateService offerLetterTemplateService;
+
+    @Autowired
+    private OfferLetterGenerationService generationService;
+
+    @Autowired
+    private OfferLetterBatchService offerLetterBatchService;
+
+    @Autowired
+    private OfferLetterMergeService offerLetterMergeService;
+
+    @Autowired
+    private OfferLetterContentWriter offerLetterContentWriter;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private OfferLetterMetrics metrics;
+
     @PostMapping("/generatePdf")
     public void downloadPDF(@ModelAttribute FormData formData, HttpServletResponse response, jakarta.servlet.http.HttpSession session) throws java.io.IOException {
         try {
@@ -69,53 +97,49 @@ public class PdfController {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String adminUsername = auth.getName();
 
-            // Generate PDF
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            generatePdfDocument(formData, baos);
-            byte[] pdfBytes = baos.toByteArray();
-
             // Create a new user account for the employee if it doesn't exist
             String employeeEmail = formData.getEmail();
             User employeeUser = null;
 
             try {
-                Optional<User> existingUser = userService.getUserByUsername(employeeEmail);
-                if (existingUser.isPresent()) {
-                    employeeUser = existingUser.get();
-                    System.out.println("Using existing user account for: " + employeeEmail);
-                } else {
-                    // Generate a random password
-                    String generatedPassword = generateRandomPassword();
-
-                    // Create new user with USER role
-                    employeeUser = userService.registerNewUser(employeeEmail, generatedPassword);
-                    System.out.println("Created new user account for: " + employeeEmail + " with password: " + generatedPassword);
-                    // In a production environment, you would email these credentials to the user
-                }
+                employeeUser = generationService.provisionEmployee(employeeEmail).getUser();
             } catch (Exception e) {
                 System.err.println("Failed to create/retrieve user account: " + e.getMessage());
                 e.printStackTrace();
             }
 
-            // Store PDF for the employee user
+            // Generate the PDF and store it for the employee user, or reuse an identical stored letter
+            byte[] pdfBytes = null;
             if (employeeUser != null) {
                 try {
-                    offerLetterService.saveOfferLetter(employeeUser, fileName, pdfBytes);
+                    OfferLetterGenerationService.StoredOfferLetter stored = generationService.renderAndStore(formData, employeeUser, fileName);
+                    pdfBytes = stored.getContent();
+                    auditService.logOfferLetterEvent(adminUsername, AuditEventType.OFFER_LETTER_GENERATE, stored.getOfferLetter().getId(),
+                            employeeEmail, stored.isReused() ? "Downloaded by the admin, identical to the stored letter" : "Downloaded by the admin");
                     System.out.println("Saved offer letter for employee: " + employeeEmail);
                 } catch (Exception e) {
                     System.err.println("Failed to save offer letter for employee: " + e.getMessage());
                     e.printStackTrace();
                 }
             }
+            if (pdfBytes == null) {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                generatePdfDocument(formData, baos);
+                pdfBytes = baos.toByteArray();
+            }
 
             // No need to store offer letters for admin users
             // Admin only manages offer letters for employees
 
             // Write PDF to response
+            Timer.Sample streamSample = Timer.start();
             try (OutputStream out = response.getOutputStream()) {
                 out.write(pdfBytes);
                 System.out.println("PDF successfully written to response");
+            } finally {
+                streamSample.stop(metrics.streamTimer());
             }
+            metrics.recordStreamed(pdfBytes.length);
         } catch (Exception e) {
             System.err.println("Error in downloadPDF: " + e.getMessage());
             e.printStackTrace();
@@ -133,48 +157,27 @@ public class PdfController {
     @PostMapping("/emailPdf")
     public String emailPDF(@ModelAttribute FormData formData, Model model) {
         try {
-            // 1. Generate PDF in memory
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            try {
-                generatePdfDocument(formData, baos);
-                System.out.println("PDF document generated successfully");
-            } catch (Exception e) {
-                System.err.println("Failed to generate PDF document: " + e.getMessage());
-                e.printStackTrace();
-                throw new RuntimeException("Failed to generate PDF document", e);
-            }
-            byte[] pdfBytes = baos.toByteArray();
-
-            // 2. Prepare email content
+            // 1. Prepare email content
             String fileName = formData.getFirstName() + formData.getLastName() + "_OfferLetter.pdf";
             String subject = "Your Internship Offer from Acentrik Technology Solutions";
             String body = buildEmailBody(formData);
 
-            // 3. Create a new user account for the employee if it doesn't exist
+            // 2. Create a new user account for the employee if it doesn't exist
             String employeeEmail = formData.getEmail();
             User employeeUser = null;
             String generatedPassword = null;
 
             try {
-                Optional<User> existingUser = userService.getUserByUsername(employeeEmail);
-                if (existingUser.isPresent()) {
-                    employeeUser = existingUser.get();
-                    System.out.println("Using existing user account for: " + employeeEmail);
-                } else {
-                    // Generate a random password
-                    generatedPassword = generateRandomPassword();
-
-                    // Create new user with USER role
-                    employeeUser = userService.registerNewUser(employeeEmail, generatedPassword);
-                    System.out.println("Created new user account for: " + employeeEmail + " with password: " + generatedPassword);
-                }
+                OfferLetterGenerationService.EmployeeAccount account = generationService.provisionEmployee(employeeEmail);
+                employeeUser = account.getUser();
+                generatedPassword = account.getGeneratedPassword();
             } catch (Exception e) {
                 System.err.println("Failed to create/retrieve user account: " + e.getMessage());
                 e.printStackTrace();
                 // Continue with email sending even if user creation fails
             }
 
-            // 4. Add login credentials to the email if a new account was created
+            // 3. Add login credentials to the email if a new account was created
             if (generatedPassword != null) {
                 body += "\n\n----- YOUR LOGIN CREDENTIALS -----\n";
                 body += "Username: " + employeeEmail + "\n";
@@ -182,38 +185,56 @@ public class PdfController {
                 body += "Please login at our portal to view your profile and offer letter.\n";
             }
 
-            // 5. Send email
+            // 4. Generate the PDF and store it for the employee user, or reuse an identical stored letter
+            byte[] pdfBytes = null;
+            if (employeeUser != null) {
+                try {
+                    OfferLetterGenerationService.StoredOfferLetter stored = generationService.renderAndStore(formData, employeeUser, fileName);
+                    pdfBytes = stored.getContent();
+                    auditService.logOfferLetterEvent(SecurityContextHolder.getContext().getAuthentication().getName(),
+                            AuditEventType.OFFER_LETTER_GENERATE, stored.getOfferLetter().getId(), employeeEmail,
+                            stored.isReused() ? "Emailed to the employee, identical to the stored letter" : "Emailed to the employee");
+                    System.out.println("Saved offer letter for employee: " + employeeEmail);
+                } catch (Exception e) {
+                    System.err.println("Failed to save offer letter for employee: " + e.getMessage());
+                    e.printStackTrace();
+                    // Continue even if saving fails
+                }
+            }
+            if (pdfBytes == null) {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try {
+                    generatePdfDocument(formData, baos);
+                    System.out.println("PDF document generated successfully");
+                } catch (Exception e) {
+                    System.err.println("Failed to generate PDF document: " + e.getMessage());
+                    e.printStackTrace();
+                    throw new RuntimeException("Failed to generate PDF document", e);
+                }
+                pdfBytes = baos.toByteArray();
+            }
+
+            // 5. Queue email for delivery by the mail workers
             try {
-                emailService.sendPdfEmail(
+                OutboundEmail queuedEmail = emailQueueService.enqueuePdfEmail(
                         employeeEmail,
                         subject,
                         body,
                         pdfBytes,
                         fileName
                 );
-                System.out.println("Email sent successfully to: " + employeeEmail);
+                model.addAttribute("emailId", queuedEmail.getId());
+                logger.info("Email {} queued for {}", queuedEmail.getId(), employeeEmail);
             } catch (Exception e) {
-                System.err.println("Failed to send email: " + e.getMessage());
+                System.err.println("Failed to queue email: " + e.getMessage());
                 e.printStackTrace();
-                throw new RuntimeException("Failed to send email", e);
+                throw new RuntimeException("Failed to queue email", e);
             }
 
-            // 6. Store PDF for the employee user
-            if (employeeUser != null) {
-                try {
-                    offerLetterService.saveOfferLetter(employeeUser, fileName, pdfBytes);
-                    System.out.println("Saved offer letter for employee: " + employeeEmail);
-                } catch (Exception e) {
-                    System.err.println("Failed to save offer letter for employee: " + e.getMessage());
-                    e.printStackTrace();
-                    // Continue even if saving fails
-                }
-            }
-
-            // 7. No need to store offer letters for admin users
+            // 6. No need to store offer letters for admin users
             // Admin only manages offer letters for employees
 
-            // 8. Return success view
+            // 7. Return success view
             model.addAttribute("recipientEmail", employeeEmail);
             return "email-success";
 
@@ -246,8 +267,80 @@ public class PdfController {
                "Acentrik Technology Solutions LLC";
     }
 
+    /**
+     * Get the delivery status of a queued email
+     *
+     * @param id The ID of the queued email
+     * @return ResponseEntity with the delivery status
+     */
+    @GetMapping("/emailStatus/{id}")
+    public ResponseEntity<Map<String, Object>> getEmailStatus(@PathVariable Long id) {
+        Optional<OutboundEmail> emailOpt = emailQueueService.getEmail(id);
+        if (emailOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        OutboundEmail email = emailOpt.get();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", email.getId());
+        status.put("recipient", email.getRecipient());
+        status.put("status", email.getStatus());
+        status.put("attempts", email.getAttempts());
+        status.put("createdAt", email.getCreatedAt());
+        status.put("sentAt", email.getSentAt());
+        status.put("nextAttemptAt", email.getNextAttemptAt());
+        status.put("lastError", email.getLastError());
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Generate offer letters for a JSON array of form data rows
+     * Returns a ZIP with one PDF per row and a batch-report.csv entry
+     *
+     * @param rows The form data rows
+     * @param response The HTTP response
+     * @throws java.io.IOException If an I/O error occurs
+     */
+    @PostMapping(value = "/generatePdfBatch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void generatePdfBatch(@RequestBody List<FormData> rows, HttpServletResponse response) throws java.io.IOException {
+        writeBatchZip(rows, response);
+    }
+
+    /**
+     * Generate offer letters for an uploaded CSV file
+     * Expected columns: firstName, lastName, email, domain, manager, joiningDate (yyyy-MM-dd), role
+     *
+     * @param file The uploaded CSV file
+     * @param response The HTTP response
+     * @throws java.io.IOException If an I/O error occurs
+     */
+    @PostMapping(value = "/generatePdfBatch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public void generatePdfBatchCsv(@RequestParam("file") MultipartFile file, HttpServletResponse response) throws java.io.IOException {
+        List<FormData> rows;
+        try (java.io.InputStream in = file.getInputStream()) {
+            rows = offerLetterBatchService.parseCsv(in);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        writeBatchZip(rows, response);
+    }
+
+    private void writeBatchZip(List<FormData> rows, HttpServletResponse response) throws java.io.IOException {
+        try {
+            response.setContentType("application/zip");
+            response.setHeader("Content-Disposition", "attachment; filename=\"offer-letters.zip\"");
+            response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+            String adminUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+            offerLetterBatchService.generateZip(rows, response.getOutputStream(), adminUsername);
+        } catch (IllegalArgumentException e) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/viewOfferLetter")
-    public void viewOfferLetter(HttpServletResponse response) throws java.io.IOException {
+    public void viewOfferLetter(HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
         // Get current user
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -261,14 +354,8 @@ public class PdfController {
                 if (offerLetterOpt.isPresent()) {
                     OfferLetter offerLetter = offerLetterOpt.get();
 
-                    // Set response headers
-                    response.setContentType("application/pdf");
-                    response.setHeader("Content-Disposition", "inline; filename=\"" + offerLetter.getFileName() + "\"");
-
-                    // Write PDF to response
-                    try (OutputStream out = response.getOutputStream()) {
-                        out.write(offerLetter.getContent());
-                    }
+                    // Stream the stored PDF, honouring conditional and Range requests
+                    offerLetterContentWriter.write(offerLetter, true, false, request, response);
                     return;
                 }
             }
@@ -282,11 +369,12 @@ public class PdfController {
      * View a specific offer letter by ID
      * 
      * @param id The ID of the offer letter to view
+     * @param request The HTTP request, which may carry a Range header
      * @param response The HTTP response
      * @throws java.io.IOException If an I/O error occurs
      */
     @GetMapping("/viewOfferLetter/{id}")
-    public void viewOfferLetterById(@PathVariable Long id, HttpServletResponse response) throws java.io.IOException {
+    public void viewOfferLetterById(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
         // Get current user
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -302,14 +390,8 @@ public class PdfController {
 
                     // Check if the user has permission to view this offer letter
                     if (offerLetter.getUser().getId().equals(user.getId()) || user.getRole().equals("ADMIN")) {
-                        // Set response headers
-                        response.setContentType("application/pdf");
-                        response.setHeader("Content-Disposition", "inline; filename=\"" + offerLetter.getFileName() + "\"");
-
-                        // Write PDF to response
-                        try (OutputStream out = response.getOutputStream()) {
-                            out.write(offerLetter.getContent());
-                        }
+                        // Stream the stored PDF, honouring conditional and Range requests
+                        offerLetterContentWriter.write(offerLetter, true, true, request, response);
                         return;
                     }
                 }
@@ -321,7 +403,7 @@ public class PdfController {
     }
 
     @GetMapping("/downloadOfferLetter")
-    public void downloadOfferLetter(HttpServletResponse response) throws java.io.IOException {
+    public void downloadOfferLetter(HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
         // Get current user
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -335,14 +417,8 @@ public class PdfController {
                 if (offerLetterOpt.isPresent()) {
                     OfferLetter offerLetter = offerLetterOpt.get();
 
-                    // Set response headers
-                    response.setContentType("application/pdf");
-                    response.setHeader("Content-Disposition", "attachment; filename=\"" + offerLetter.getFileName() + "\"");
-
-                    // Write PDF to response
-                    try (OutputStream out = response.getOutputStream()) {
-                        out.write(offerLetter.getContent());
-                    }
+                    // Stream the stored PDF, honouring conditional and Range requests
+                    offerLetterContentWriter.write(offerLetter, false, false, request, response);
                     return;
                 }
             }
@@ -356,11 +432,12 @@ public class PdfController {
      * Download a specific offer letter by ID
      * 
      * @param id The ID of the offer letter to download
+     * @param request The HTTP request, which may carry a Range header
      * @param response The HTTP response
      * @throws java.io.IOException If an I/O error occurs
      */
     @GetMapping("/downloadOfferLetter/{id}")
-    public void downloadOfferLetterById(@PathVariable Long id, HttpServletResponse response) throws java.io.IOException {
+    public void downloadOfferLetterById(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
         // Get current user
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -376,14 +453,8 @@ public class PdfController {
 
                     // Check if the user has permission to download this offer letter
                     if (offerLetter.getUser().getId().equals(user.getId()) || user.getRole().equals("ADMIN")) {
-                        // Set response headers
-                        response.setContentType("application/pdf");
-                        response.setHeader("Content-Disposition", "attachment; filename=\"" + offerLetter.getFileName() + "\"");
-
-                        // Write PDF to response
-                        try (OutputStream out = response.getOutputStream()) {
-                            out.write(offerLetter.getContent());
-                        }
+                        // Stream the stored PDF, honouring conditional and Range requests
+                        offerLetterContentWriter.write(offerLetter, false, true, request, response);
                         return;
                     }
                 }
@@ -436,6 +507,8 @@ public class PdfController {
             boolean removed = offerLetterService.removeOfferLetterById(id);
 
             if (removed) {
+                auditService.logOfferLetterEvent(username, AuditEventType.OFFER_LETTER_DELETE, id,
+                        offerLetter.getUser().getUsername(), offerLetter.getFileName());
                 return ResponseEntity.ok("Offer letter removed successfully");
             } else {
                 return ResponseEntity.status(500).body("Failed to remove offer letter");
@@ -470,7 +543,7 @@ public class PdfController {
             }
 
             // Check if the user to terminate exists
-            Optional<User> userToTerminateOpt = userService.getUserByUsername(userId.toString());
+            Optional<User> userToTerminateOpt = userService.getUserById(userId);
             if (!userToTerminateOpt.isPresent()) {
                 return ResponseEntity.status(404).body("Employee not found");
             }
@@ -486,6 +559,7 @@ public class PdfController {
             boolean deleted = userService.deleteUserById(userId);
 
             if (deleted) {
+                auditService.logUserManagementEvent(username, AuditEventType.USER_TERMINATE, userToTerminate.getUsername(), null);
                 return ResponseEntity.ok("Employee terminated successfully");
             } else {
                 return ResponseEntity.status(500).body("Failed to terminate employee");
@@ -496,14 +570,20 @@ public class PdfController {
     }
 
     /**
-     * Get all offer letters for the current user
-     * If the user is an admin, get all offer letters for all users
+     * Get the offer letters of the current user, one page at a time
+     * If the user is an admin, list the offer letters of all employees
      * 
+     * @param filter Optional filters and sort order
+     * @param cursor The cursor of the page to show, omitted for the first page
+     * @param size The page size
      * @param model The model to add attributes to
      * @return The view name
      */
     @GetMapping("/myOfferLetters")
-    public String getMyOfferLetters(Model model) {
+    public String getMyOfferLetters(@ModelAttribute("filter") OfferLetterFilter filter,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    Model model) {
         // Get current user
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -517,151 +597,112 @@ public class PdfController {
                 boolean isAdmin = user.getRole().equals("ADMIN");
                 model.addAttribute("isAdmin", isAdmin);
 
-                if (isAdmin) {
-                    // For admin users, get all offer letters for all users
-                    List<User> allUsers = userService.getAllUsers();
-                    // Filter out admin users
-                    List<User> employees = allUsers.stream()
-                        .filter(u -> !u.getRole().equals("ADMIN"))
-                        .toList();
-
-                    // Create a map of users to their offer letters
-                    java.util.Map<User, List<OfferLetter>> employeeOfferLetters = new java.util.HashMap<>();
-                    for (User employee : employees) {
-                        List<OfferLetter> letters = offerLetterService.getOfferLettersForUser(employee);
-                        if (!letters.isEmpty()) {
-                            employeeOfferLetters.put(employee, letters);
-                        }
+                try {
+                    OfferLetterPage page = offerLetterService.listOfferLetters(scopeFilter(filter, user), cursor, size);
+                    if (isAdmin) {
+                        // For admin users, one page of offer letters across all employees
+                        model.addAttribute("employeeOfferLetters", page.getItems());
+                    } else {
+                        // For regular users, only their own offer letters
+                        model.addAttribute("offerLetters", page.getItems());
                     }
-
-                    model.addAttribute("employeeOfferLetters", employeeOfferLetters);
-                } else {
-                    // For regular users, get only their offer letters
-                    List<OfferLetter> offerLetters = offerLetterService.getOfferLettersForUser(user);
-                    model.addAttribute("offerLetters", offerLetters);
+                    model.addAttribute("nextCursor", page.getNextCursor());
+                } catch (IllegalArgumentException e) {
+                    model.addAttribute("errorMessage", e.getMessage());
                 }
+                model.addAttribute("size", size);
             }
         }
 
         return "offer-letters";
     }
 
-    private void generatePdfDocument(FormData formData, OutputStream outputStream) throws IOException, java.io.IOException {
-        PdfWriter writer = new PdfWriter(outputStream);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf);
-
-        // PDF styling
-        PdfFont font = PdfFontFactory.createFont(StandardFonts.TIMES_ROMAN);
-        document.setFont(font);
-        document.setFontSize(12);
+    /**
+     * List offer letter metadata as JSON, one page at a time
+     * Admins see the offer letters of all employees, other users only their own.
+     *
+     * @param filter Optional filters and sort order
+     * @param cursor The cursor returned with the previous page, omitted for the first page
+     * @param size The page size
+     * @return The page and the cursor for the next page
+     */
+    @GetMapping("/offerLetters")
+    @ResponseBody
+    public ResponseEntity<OfferLetterPage> listOfferLetters(@ModelAttribute OfferLetterFilter filter,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Optional<User> userOpt = userService.getUserByUsername(auth.getName());
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.status(HttpServletResponse.SC_FORBIDDEN).build();
+        }
 
-        // Create a header with logo and company name side by side
         try {
-            // Use getResourceAsStream instead of getResource().getPath() for better compatibility
-            byte[] logoBytes = getClass().getClassLoader().getResourceAsStream("static/img1.png").readAllBytes();
-            Image logo = new Image(ImageDataFactory.create(logoBytes));
-            // Make the logo smaller
-            logo.setWidth(60);
-
-            // Create a single header paragraph that will contain the logo, company name, and tagline
-            Paragraph header = new Paragraph();
-
-            // Add the logo to the header
-            header.add(logo);
-            header.add("\n");
-
-            // Add company name to the header
-            header.add(new Text("Acentrik Technology Solutions LLC")
-                    .setBold()
-                    .setFontSize(16));
-            header.add("\n");
-
-            // Add tagline to the header
-            header.add(new Text("Passion, Innovation & Trust")
-                    .setBold()
-                    .setFontSize(12));
-
-            // Set the alignment for the entire header
-            header.setTextAlignment(TextAlignment.CENTER);
-
-            // Add the complete header to the document
-            document.add(header);
-
-        } catch (Exception e) {
-            // Fallback to text header if image loading fails
-            System.err.println("Failed to load logo image: " + e.getMessage());
-            e.printStackTrace();
-
-            // Header without logo as fallback - using a single paragraph for consistent alignment
-            Paragraph header = new Paragraph();
-
-            // Add company name to the header
-            header.add(new Text("Acentrik Technology Solutions LLC")
-                    .setBold()
-                    .setFontSize(16));
-            header.add("\n");
-
-            // Add tagline to the header
-            header.add(new Text("Passion, Innovation & Trust")
-                    .setBold()
-                    .setFontSize(12));
-
-            // Set the alignment for the entire header
-            header.setTextAlignment(TextAlignment.CENTER);
-
-            // Add the complete header to the document
-            document.add(header);
+            return ResponseEntity.ok(offerLetterService.listOfferLetters(scopeFilter(filter, userOpt.get()), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
+    }
 
-        // Date
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM-dd-yyyy");
-        String formattedToday = LocalDate.now().format(formatter);
-        document.add(new Paragraph(formattedToday)
-                .setTextAlignment(TextAlignment.LEFT));
-
-        // Offer content (same as before)
-        String formattedJoiningDate = formData.getJoiningDate().format(formatter);
-        document.add(new Paragraph("Offer of Internship")
-                .setBold()
-                .setFontSize(12)
-                .setTextAlignment(TextAlignment.LEFT));
-
-        document.add(new Paragraph("Dear " + formData.getFirstName() + " " + formData.getLastName() + ","));
-
-        document.add(new Paragraph("It's my pleasure to offer you a " + formData.getRole() + "  role at Acentrik. Your internship will be from " + formattedJoiningDate+ ".").setTextAlignment(TextAlignment.JUSTIFIED));
-
-        document.add(new Paragraph("On behalf of Acentrik Technology Solutions, LLC, 4425 W Airport fwy, Suite 117, Irving, TX-75062, we are pleased to welcome you. You will report to " + formData.getManager() + " (Reporting Manager) during your internship period with us.").setTextAlignment(TextAlignment.JUSTIFIED));
-
-        document.add(new Paragraph("Your Job responsibilities include:")
-                .setBold());
-
-        document.add(new Paragraph(
-                """
-                        \t• Conduct business process analysis to understand existing workflow and systems, document current processes and systems.
-                        \t• Create requirements for new processes, develop use cases and manage requirement changes.
-                        \t• Have strong technical acumen with the ability to translate information and research into non-technical language as necessary to effectively communicate across teams.
-                        \t• Gather, summarize, and verify information used to populate reports and deliverables.
-                        \t• Facilitate requirement reviews with stakeholders, perform QA testing and conduct UAT with business/process teams.
-                        \t• Maintain documentation related to CMDB processes, procedures, and configurations."""
-        ).setTextAlignment(TextAlignment.JUSTIFIED));
-
-
-        document.add(new Paragraph()
-                .add(new Text("Company Agreements: ").setBold())
-                .add("For the purpose of Federal Immigration Law, you will be required to provide the evidence of your identity and eligibility for internship in the United States. Such documentation must be provided to us within three business days of your date of hire with Acentrik Technology Solutions, LLC, or your internship may be terminated.").setTextAlignment(TextAlignment.JUSTIFIED)
-        );
+    /**
+     * Export stored offer letters as one PDF with a bookmark per letter
+     * Letters are selected by ID, or otherwise by creation date range and the other listing filters.
+     *
+     * @param ids The IDs of the offer letters, in the order they should appear
+     * @param filter The filters used when no IDs are given; createdFrom or createdTo is required
+     * @param response The HTTP response
+     * @throws java.io.IOException If an I/O error occurs
+     */
+    @GetMapping("/mergedOfferLetters")
+    public void downloadMergedOfferLetters(@RequestParam(required = false) List<Long> ids,
+                                           @ModelAttribute OfferLetterFilter filter,
+                                           HttpServletResponse response) throws java.io.IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Optional<User> userOpt = userService.getUserByUsername(auth.getName());
+        if (userOpt.isEmpty() || !userOpt.get().getRole().equals("ADMIN")) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
 
-        document.add(new Paragraph()
-                .add(new Text("At-Will Employment: ").setBold())
-                .add("If you accept this offer, you understand and agree that your employment with the Company is for no specified period and constitutes \"at-will\" employment. As a result, you will be free to resign at any time or for any reason or no reason. The company will similarly have the right to end its employment relationship with you at any time, with or without notice and with or without cause. You understand and agree that any representation to the contrary is unauthorized and not valid unless obtained, written, and signed by the company manager.").setTextAlignment(TextAlignment.JUSTIFIED)
-        );
-        document.add(new Paragraph("If you have any questions or need further information, please feel free to contact me at 972-799-6164 or kishore.medikonda@acentriktech.com. We look forward to seeing you and we offer you a very warm welcome.").setTextAlignment(TextAlignment.JUSTIFIED));
+        OfferLetterMergeService.Selection selection;
+        try {
+            if (ids != null && !ids.isEmpty()) {
+                selection = offerLetterMergeService.selectByIds(ids);
+            } else if (filter.getCreatedFrom() != null || filter.getCreatedTo() != null) {
+                selection = offerLetterMergeService.selectByFilter(scopeFilter(filter, userOpt.get()));
+            } else {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Select offer letters by ids or a createdFrom/createdTo date range");
+                return;
+            }
+            // Loads the first chunk, so an empty selection is reported before anything is written
+            if (!selection.hasNext()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "No offer letters found");
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
 
-        document.add(new Paragraph("Sincerely,"));
+        response.setContentType("application/pdf");
+        response.setHeader("Content-Disposition", "attachment; filename=\"offer-letters.pdf\"");
+        response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+        offerLetterMergeService.merge(selection, response.getOutputStream(), auth.getName());
+    }
 
-        document.add(new Paragraph("Kishore Medikonda\nHR Director\nAcentrik Technology Solutions LLC"));
+    private OfferLetterFilter scopeFilter(OfferLetterFilter filter, User user) {
+        // The scope comes from the current user, never from request parameters
+        if (user.getRole().equals("ADMIN")) {
+            filter.setUserId(null);
+            filter.setEmployeesOnly(true);
+        } else {
+            filter.setUserId(user.getId());
+            filter.setEmployeesOnly(false);
+        }
+        return filter;
+    }
 
-        document.close();
+    private void generatePdfDocument(FormData formData, OutputStream outputStream) throws java.io.IOException {
+        offerLetterTemplateService.render(formData, outputStream);
     }
 }
@@ -0,0 +1,57 @@
+package org.acentrik.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An offer letter moved out of offer_letters by the retention job
+ *
+ * Keeps the ID and metadata of the original offer letter; the PDF is stored compressed in an
+ * archive segment file at the given offset instead of in the blob store.
+ */
+@Entity
+@Table(name = "offer_letter_archive", indexes = {
+        @Index(name = "idx_offer_letter_archive_segment", columnList = "segment")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOfferLetter {
+
+    // The ID the offer letter had in offer_letters, so existing links keep working
+    @Id
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    // Hex encoded SHA-256 of the PDF
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_length")
+    private Long contentLength;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Name of the segment file holding the PDF
+    @Column(name = "segment", nullable = false)
+    private String segment;
+
+    // Position of the PDF's entry in the segment file
+    @Column(name = "segment_offset", nullable = false)
+    private long segmentOffset;
+
+}
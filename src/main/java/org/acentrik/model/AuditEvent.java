@@ -0,0 +1,59 @@
+package org.acentrik.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An audited operation
+ * Events are created on the request thread and written to the audit sinks in the background;
+ * the entity mapping defines the audit_events table the JDBC sink appends to.
+ */
+@Entity
+@Table(name = "audit_events", indexes = @Index(name = "idx_audit_events_occurred", columnList = "occurredAt"))
+@Data
+@NoArgsConstructor
+public class AuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AuditEventType type;
+
+    // The user who performed the operation
+    private String actor;
+
+    // The user the operation was performed on, if it isn't the actor
+    private String target;
+
+    private Long offerLetterId;
+
+    @Column(length = 1000)
+    private String details;
+
+    /**
+     * Create an event that occurred now
+     *
+     * @param type The event type
+     * @param actor The user who performed the operation
+     * @param target The user the operation was performed on, may be null
+     * @param offerLetterId The offer letter concerned, may be null
+     * @param details Additional details, may be null
+     */
+    public AuditEvent(AuditEventType type, String actor, String target, Long offerLetterId, String details) {
+        this.occurredAt = LocalDateTime.now();
+        this.type = type;
+        this.actor = actor;
+        this.target = target;
+        this.offerLetterId = offerLetterId;
+        this.details = details;
+    }
+}
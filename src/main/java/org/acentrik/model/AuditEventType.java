@@ -0,0 +1,41 @@
+package org.acentrik.model;
+
+/**
+ * Type of an audited operation
+ */
+public enum AuditEventType {
+    LOGIN_SUCCESS(Category.AUTH),
+    LOGIN_FAILURE(Category.AUTH),
+    // The failed login that locked the account
+    ACCOUNT_LOCKED(Category.AUTH),
+    PASSWORD_CHANGE(Category.PASSWORD),
+    // The stored hash was upgraded to the current encoding after a login
+    PASSWORD_REHASH(Category.PASSWORD),
+    PASSWORD_RESET_REQUEST(Category.PASSWORD),
+    PASSWORD_RESET(Category.PASSWORD),
+    OFFER_LETTER_GENERATE(Category.OFFER_LETTER),
+    OFFER_LETTER_VIEW(Category.OFFER_LETTER),
+    OFFER_LETTER_DOWNLOAD(Category.OFFER_LETTER),
+    OFFER_LETTER_DELETE(Category.OFFER_LETTER),
+    USER_TERMINATE(Category.USER_MANAGEMENT);
+
+    private final Category category;
+
+    AuditEventType(Category category) {
+        this.category = category;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Group of related audit event types
+     */
+    public enum Category {
+        AUTH,
+        PASSWORD,
+        OFFER_LETTER,
+        USER_MANAGEMENT
+    }
+}
@@ -0,0 +1,15 @@
+package org.acentrik.model;
+
+/**
+ * Delivery status of a queued outbound email
+ */
+public enum EmailStatus {
+    // Waiting for its first or next delivery attempt
+    PENDING,
+    // Claimed by a mail worker
+    SENDING,
+    // Delivered to the mail server
+    SENT,
+    // Gave up after the maximum number of attempts
+    FAILED
+}
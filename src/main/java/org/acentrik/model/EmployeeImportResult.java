@@ -0,0 +1,47 @@
+package org.acentrik.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk employee import
+ * Every data row of the upload ends up either accepted or rejected; row numbers count data
+ * rows from 1, not including the header.
+ */
+@Data
+@NoArgsConstructor
+public class EmployeeImportResult {
+
+    private List<AcceptedRow> accepted = new ArrayList<>();
+
+    private List<RejectedRow> rejected = new ArrayList<>();
+
+    /**
+     * An employee account created by the import
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AcceptedRow {
+        private int row;
+        private String username;
+        // Only set when the row had no password and one was generated
+        private String generatedPassword;
+    }
+
+    /**
+     * A row that was not imported
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+        private int row;
+        private String username;
+        private String reason;
+    }
+}
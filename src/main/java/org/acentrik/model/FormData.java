@@ -18,6 +18,8 @@ public class FormData {
     private String manager;
     private LocalDate joiningDate;
     private String role;
+    // The PDF to produce, null for the configured default
+    private OfferLetterOutputProfile outputProfile;
 
 
 
@@ -8,7 +8,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "offer_letters")
+@Table(name = "offer_letters", indexes = {
+        @Index(name = "idx_offer_letters_content_hash", columnList = "content_hash"),
+        @Index(name = "idx_offer_letters_user_created", columnList = "user_id, createdAt"),
+        @Index(name = "idx_offer_letters_created", columnList = "createdAt, id"),
+        @Index(name = "idx_offer_letters_user_fingerprint", columnList = "user_id, render_fingerprint")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,18 +30,31 @@ public class OfferLetter {
     @Column(nullable = false)
     private String fileName;
     
-    @Lob
-    @Column(nullable = false)
-    private byte[] content;
+    // Reference of the PDF in the blob store; the bytes are not kept in this table
+    @Column(name = "content_ref")
+    private String contentRef;
+
+    // Hex encoded SHA-256 of the PDF
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_length")
+    private Long contentLength;
     
     @Column(nullable = false)
     private LocalDateTime createdAt;
+
+    // Hex encoded SHA-256 of the inputs the PDF was rendered from, see OfferLetterTemplateService#fingerprint
+    @Column(name = "render_fingerprint", length = 64)
+    private String renderFingerprint;
     
-    // Constructor with user, fileName, content, and createdAt
-    public OfferLetter(User user, String fileName, byte[] content, LocalDateTime createdAt) {
+    // Constructor with user, fileName, content reference, hash, length, and createdAt
+    public OfferLetter(User user, String fileName, String contentRef, String contentHash, long contentLength, LocalDateTime createdAt) {
         this.user = user;
         this.fileName = fileName;
-        this.content = content;
+        this.contentRef = contentRef;
+        this.contentHash = contentHash;
+        this.contentLength = contentLength;
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package org.acentrik.model;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filter and sort order for offer letter listings
+ * All filters are optional; unset filters match every offer letter.
+ */
+@Data
+public class OfferLetterFilter {
+
+    // Restrict the listing to one user's offer letters
+    private Long userId;
+
+    // Case-insensitive substring of the employee's username
+    private String username;
+
+    // Case-insensitive substring of the file name
+    private String fileName;
+
+    // Inclusive range of creation dates
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+
+    // Leave out offer letters that belong to admin accounts
+    private boolean employeesOnly;
+
+    private SortField sort = SortField.CREATED_AT;
+
+    private boolean ascending;
+
+    /**
+     * Columns a listing can be sorted by
+     * The offer letter ID is always used as tie-breaker, which keeps keyset pagination stable.
+     */
+    public enum SortField {
+        CREATED_AT,
+        FILE_NAME
+    }
+}
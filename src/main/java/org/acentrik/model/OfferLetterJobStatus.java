@@ -0,0 +1,19 @@
+package org.acentrik.model;
+
+/**
+ * Status of an asynchronous offer letter generation job
+ */
+public enum OfferLetterJobStatus {
+    // Waiting for a generation worker
+    QUEUED,
+    // Being rendered, provisioned and stored
+    RUNNING,
+    // The offer letter is stored and can be downloaded
+    COMPLETED,
+    // Generation failed, see the job's error
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
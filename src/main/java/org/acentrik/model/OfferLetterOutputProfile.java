@@ -0,0 +1,22 @@
+package org.acentrik.model;
+
+/**
+ * The kind of PDF an offer letter is written as
+ */
+public enum OfferLetterOutputProfile {
+
+    /**
+     * iText's default output: compressed content streams with a plain cross-reference table
+     */
+    STANDARD,
+
+    /**
+     * Best compression with object and cross-reference streams (PDF 1.5), for smaller stored and emailed letters
+     */
+    COMPRESSED,
+
+    /**
+     * PDF/A-2b for long-term archiving, with an embedded font and an sRGB output intent
+     */
+    PDF_A_2B
+}
@@ -0,0 +1,21 @@
+package org.acentrik.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of an offer letter listing
+ * The next page is requested with the opaque cursor, which is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfferLetterPage {
+
+    private List<OfferLetterSummary> items;
+
+    private String nextCursor;
+}
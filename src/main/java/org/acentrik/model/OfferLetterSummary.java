@@ -0,0 +1,32 @@
+package org.acentrik.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata of an offer letter, without the PDF content
+ * Used by listings, which only need enough to show and link to each letter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfferLetterSummary {
+
+    private Long id;
+
+    private Long userId;
+
+    private String username;
+
+    private String fileName;
+
+    private LocalDateTime createdAt;
+
+    private Long contentLength;
+
+    // Moved to the archive by the retention job; still served by the view and download endpoints
+    private boolean archived;
+}
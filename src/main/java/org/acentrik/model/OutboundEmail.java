@@ -0,0 +1,82 @@
+package org.acentrik.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity for an email waiting in (or delivered through) the outbound mail queue
+ */
+@Entity
+@Table(name = "outbound_emails", indexes = @Index(name = "idx_outbound_emails_status_next", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+public class OutboundEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    // May carry a new employee's login credentials, so it is cleared once the email is sent or given up on
+    @Lob
+    @Column(nullable = false)
+    private String body;
+
+    // Cleared once the email has been sent
+    @Lob
+    private byte[] attachment;
+
+    private String attachmentName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmailStatus status;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    // The mail queue instance that last claimed the email for delivery, and when
+    @Column(length = 64)
+    private String claimedBy;
+
+    private LocalDateTime claimedAt;
+
+    /**
+     * Create a new pending email that is due immediately
+     *
+     * @param recipient Recipient email address
+     * @param subject Email subject
+     * @param body Email body content
+     * @param attachment PDF file as byte array
+     * @param attachmentName Name for the attached file
+     */
+    public OutboundEmail(String recipient, String subject, String body, byte[] attachment, String attachmentName) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.attachment = attachment;
+        this.attachmentName = attachmentName;
+        this.status = EmailStatus.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
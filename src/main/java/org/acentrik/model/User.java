@@ -16,6 +16,9 @@ import java.util.List;
 @AllArgsConstructor
 public class User {
 
+    // Accounts are locked after this many failed logins in a row
+    public static final int MAX_FAILED_LOGIN_ATTEMPTS = 5;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -99,8 +102,7 @@ public class User {
      */
     public void incrementFailedLoginAttempts() {
         this.failedLoginAttempts++;
-        // Lock account after 5 failed attempts
-        if (this.failedLoginAttempts >= 5) {
+        if (this.failedLoginAttempts >= MAX_FAILED_LOGIN_ATTEMPTS) {
             this.accountLocked = true;
         }
     }
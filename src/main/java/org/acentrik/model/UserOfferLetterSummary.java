@@ -0,0 +1,31 @@
+package org.acentrik.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a user together with the metadata of their latest offer letter
+ *
+ * Only the columns shown on the admin dashboard are selected, so listing users
+ * doesn't load User or OfferLetter entities. The letter fields are null when the
+ * user has no offer letter.
+ */
+public interface UserOfferLetterSummary {
+
+    Long getUserId();
+
+    String getUsername();
+
+    Long getLetterId();
+
+    String getFileName();
+
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Check if the user has an offer letter
+     * @return true if the letter fields are set
+     */
+    default boolean hasOfferLetter() {
+        return getLetterId() != null;
+    }
+}
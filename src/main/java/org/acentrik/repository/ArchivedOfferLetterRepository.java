@@ -0,0 +1,29 @@
+package org.acentrik.repository;
+
+import org.acentrik.model.ArchivedOfferLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOfferLetterRepository extends JpaRepository<ArchivedOfferLetter, Long> {
+
+    /**
+     * Find archived offer letters by ID together with their users, in one query
+     * @param ids The offer letter IDs
+     * @return The archived offer letters that exist, in no particular order
+     */
+    @Query("SELECT a FROM ArchivedOfferLetter a JOIN FETCH a.user WHERE a.id IN :ids")
+    List<ArchivedOfferLetter> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Count the archived offer letters stored in a segment file
+     * @param segment The segment file name
+     * @return The number of archived offer letters in the segment
+     */
+    long countBySegment(String segment);
+}
@@ -2,14 +2,18 @@ package org.acentrik.repository;
 
 import org.acentrik.model.OfferLetter;
 import org.acentrik.model.User;
+import org.acentrik.model.UserOfferLetterSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OfferLetterRepository extends JpaRepository<OfferLetter, Long> {
+public interface OfferLetterRepository extends JpaRepository<OfferLetter, Long>, OfferLetterRepositoryCustom {
     
     /**
      * Find all offer letters for a specific user
@@ -24,4 +28,40 @@ public interface OfferLetterRepository extends JpaRepository<OfferLetter, Long>
      * @return Optional containing the latest offer letter if found
      */
     Optional<OfferLetter> findFirstByUserOrderByCreatedAtDesc(User user);
-}
\ No newline at end of file
+
+    /**
+     * Find the latest offer letter of a user rendered from the given inputs
+     * @param user The user the offer letter belongs to
+     * @param renderFingerprint The render fingerprint
+     * @return Optional containing the latest matching offer letter if found
+     */
+    Optional<OfferLetter> findFirstByUserAndRenderFingerprintOrderByCreatedAtDesc(User user, String renderFingerprint);
+
+    /**
+     * Find offer letters by ID together with their users, in one query
+     * @param ids The offer letter IDs
+     * @return The offer letters that exist, in no particular order
+     */
+    @Query("SELECT o FROM OfferLetter o JOIN FETCH o.user WHERE o.id IN :ids")
+    List<OfferLetter> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Count the offer letters that reference a stored blob
+     * @param contentRef The blob reference
+     * @return The number of offer letters referencing the blob
+     */
+    long countByContentRef(String contentRef);
+
+    /**
+     * Find every user together with the metadata of their latest offer letter, in one query
+     * Users without an offer letter are included with null letter fields. When two letters
+     * share the latest creation time the one with the higher ID wins, so each user appears once.
+     * @return One summary per user, ordered by user ID
+     */
+    @Query("SELECT u.id AS userId, u.username AS username, o.id AS letterId, o.fileName AS fileName, o.createdAt AS createdAt " +
+            "FROM User u LEFT JOIN OfferLetter o ON o.user = u AND NOT EXISTS (" +
+            "SELECT 1 FROM OfferLetter newer WHERE newer.user = o.user AND (newer.createdAt > o.createdAt " +
+            "OR (newer.createdAt = o.createdAt AND newer.id > o.id))) " +
+            "ORDER BY u.id")
+    List<UserOfferLetterSummary> findUsersWithLatestOfferLetter();
+}
@@ -0,0 +1,25 @@
+package org.acentrik.repository;
+
+import org.acentrik.model.OfferLetterFilter;
+import org.acentrik.model.OfferLetterSummary;
+
+import java.util.List;
+
+/**
+ * Offer letter queries that are built dynamically and can't be derived from method names
+ */
+public interface OfferLetterRepositoryCustom {
+
+    /**
+     * Find offer letter metadata using keyset pagination
+     * Rows are ordered by the filter's sort column and then by ID. Passing the sort value and ID
+     * of the last row of a page returns the rows that follow it, so deep pages cost the same as
+     * the first one.
+     * @param filter The filters and sort order
+     * @param afterValue The sort column value of the last row of the previous page, or null for the first page
+     * @param afterId The ID of the last row of the previous page, or null for the first page
+     * @param limit The maximum number of rows to return
+     * @return The matching offer letter summaries
+     */
+    List<OfferLetterSummary> findSummaries(OfferLetterFilter filter, Object afterValue, Long afterId, int limit);
+}
@@ -0,0 +1,104 @@
+package org.acentrik.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import org.acentrik.model.OfferLetterFilter;
+import org.acentrik.model.OfferLetterSummary;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Implementation of the dynamic offer letter queries
+ * Selects only metadata columns into {@link OfferLetterSummary}, never OfferLetter entities.
+ * Listings include archived offer letters, see {@link org.acentrik.model.ArchivedOfferLetter}.
+ */
+public class OfferLetterRepositoryImpl implements OfferLetterRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OfferLetterSummary> findSummaries(OfferLetterFilter filter, Object afterValue, Long afterId, int limit) {
+        // Native SQL, as the query is a union of offer_letters and offer_letter_archive; both are aliased o
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (filter.getUserId() != null) {
+            conditions.add("u.id = :userId");
+            parameters.put("userId", filter.getUserId());
+        }
+        if (filter.getUsername() != null && !filter.getUsername().isBlank()) {
+            conditions.add("LOWER(u.username) LIKE :username ESCAPE '!'");
+            parameters.put("username", likePattern(filter.getUsername()));
+        }
+        if (filter.getFileName() != null && !filter.getFileName().isBlank()) {
+            conditions.add("LOWER(o.file_name) LIKE :fileName ESCAPE '!'");
+            parameters.put("fileName", likePattern(filter.getFileName()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            conditions.add("o.created_at >= :createdFrom");
+            parameters.put("createdFrom", filter.getCreatedFrom().atStartOfDay());
+        }
+        if (filter.getCreatedTo() != null) {
+            conditions.add("o.created_at < :createdTo");
+            parameters.put("createdTo", filter.getCreatedTo().plusDays(1).atStartOfDay());
+        }
+        if (filter.isEmployeesOnly()) {
+            conditions.add("u.role <> 'ADMIN'");
+        }
+
+        String column = filter.getSort() == OfferLetterFilter.SortField.FILE_NAME ? "file_name" : "created_at";
+        String comparison = filter.isAscending() ? ">" : "<";
+        if (afterValue != null && afterId != null) {
+            conditions.add("(o." + column + " " + comparison + " :afterValue OR (o." + column + " = :afterValue AND o.id " + comparison + " :afterId))");
+            parameters.put("afterValue", afterValue);
+            parameters.put("afterId", afterId);
+        }
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+
+        // Archived letters keep their ID and metadata, so both tables are paged as one list
+        String direction = filter.isAscending() ? "ASC" : "DESC";
+        String sql = "SELECT o.id AS id, u.id AS user_id, u.username AS username, o.file_name AS file_name, "
+                + "o.created_at AS created_at, o.content_length AS content_length, 0 AS archived "
+                + "FROM offer_letters o JOIN users u ON u.id = o.user_id" + where
+                + " UNION ALL SELECT o.id, u.id, u.username, o.file_name, o.created_at, o.content_length, 1 "
+                + "FROM offer_letter_archive o JOIN users u ON u.id = o.user_id" + where
+                + " ORDER BY " + column + " " + direction + ", id " + direction;
+
+        Query query = entityManager.createNativeQuery(sql, Tuple.class);
+        parameters.forEach(query::setParameter);
+        List<OfferLetterSummary> summaries = new ArrayList<>();
+        for (Object result : query.setMaxResults(limit).getResultList()) {
+            Tuple row = (Tuple) result;
+            summaries.add(new OfferLetterSummary(
+                    ((Number) row.get("id")).longValue(),
+                    ((Number) row.get("user_id")).longValue(),
+                    row.get("username", String.class),
+                    row.get("file_name", String.class),
+                    toLocalDateTime(row.get("created_at")),
+                    row.get("content_length") != null ? ((Number) row.get("content_length")).longValue() : null,
+                    ((Number) row.get("archived")).intValue() != 0));
+        }
+        return summaries;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static String likePattern(String value) {
+        String escaped = value.trim().toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,81 @@
+package org.acentrik.repository;
+
+import org.acentrik.model.EmailStatus;
+import org.acentrik.model.OutboundEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the outbound mail queue
+ */
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    /**
+     * Find the ids of emails that are due for a delivery attempt, oldest first
+     *
+     * @param status The status to look for
+     * @param now The current time
+     * @param pageable The maximum number of ids to return
+     * @return The ids of the due emails
+     */
+    @Query("SELECT e.id FROM OutboundEmail e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(EmailStatus status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Atomically move an email from one status to another
+     * Used to hand claimed emails back to the queue when the mail workers can't take them
+     *
+     * @param id The email id
+     * @param from The expected current status
+     * @param to The new status
+     * @return 1 if the email was in the expected status and was updated, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = :to WHERE e.id = :id AND e.status = :from")
+    int transitionStatus(Long id, EmailStatus from, EmailStatus to);
+
+    /**
+     * Atomically claim a pending email for delivery
+     * Used by mail workers so that an email is only delivered once
+     *
+     * @param id The email id
+     * @param owner The id of the claiming mail queue instance
+     * @param now The current time
+     * @return 1 if the email was pending and is now claimed, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = org.acentrik.model.EmailStatus.SENDING, e.claimedBy = :owner, e.claimedAt = :now "
+            + "WHERE e.id = :id AND e.status = org.acentrik.model.EmailStatus.PENDING")
+    int claim(Long id, String owner, LocalDateTime now);
+
+    /**
+     * Release claims taken before a cutoff back to the queue
+     * Used to recover emails claimed by a worker or node that stopped before finishing
+     *
+     * @param cutoff Claims taken before this time are released
+     * @return The number of emails released
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = org.acentrik.model.EmailStatus.PENDING "
+            + "WHERE e.status = org.acentrik.model.EmailStatus.SENDING AND (e.claimedAt IS NULL OR e.claimedAt < :cutoff)")
+    int releaseExpiredClaims(LocalDateTime cutoff);
+
+    /**
+     * Count emails in a status
+     *
+     * @param status The status
+     * @return The number of emails in the status
+     */
+    long countByStatus(EmailStatus status);
+}
@@ -2,11 +2,24 @@ package org.acentrik.repository;
 
 import org.acentrik.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    /**
+     * Find which of the given usernames are taken, in one query
+     *
+     * @param usernames The usernames to check
+     * @return The usernames that already exist
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package org.acentrik.service;
+
+import org.acentrik.model.AuditEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer queue of audit events
+ *
+ * Producers claim a slot by advancing the tail with a CAS and then publish the event into it;
+ * the single consumer takes events in claim order and clears their slots. A full buffer
+ * rejects new events instead of blocking the request thread.
+ */
+final class AuditRingBuffer {
+
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final int mask;
+    // Next sequence to claim, advanced by producers
+    private final AtomicLong tail = new AtomicLong();
+    // Next sequence to consume, only advanced by the consumer
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity The minimum capacity, rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add an event without blocking; safe to call from any thread
+     *
+     * @param event The event
+     * @return false if the buffer is full
+     */
+    boolean offer(AuditEvent event) {
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head.get() >= slots.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                slots.lazySet((int) (sequence & mask), event);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Move events into a list, in the order they were claimed; only called by the consumer
+     * Stops at a slot that is claimed but not published yet, so ordering is never broken.
+     *
+     * @param into The list to add the events to
+     * @param max The maximum number of events to take
+     * @return The number of events taken
+     */
+    int drain(List<AuditEvent> into, int max) {
+        long sequence = head.get();
+        int taken = 0;
+        while (taken < max) {
+            int index = (int) (sequence & mask);
+            AuditEvent event = slots.get(index);
+            if (event == null) {
+                break;
+            }
+            // The slot is cleared before the head moves past it, so producers never overwrite a pending event
+            slots.lazySet(index, null);
+            into.add(event);
+            sequence++;
+            taken++;
+        }
+        head.lazySet(sequence);
+        return taken;
+    }
+
+    /**
+     * @return The number of claimed events that have not been consumed yet
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * @return The number of slots
+     */
+    int capacity() {
+        return slots.length();
+    }
+}
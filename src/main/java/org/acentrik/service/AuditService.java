@@ -1,76 +1,195 @@
 package org.acentrik.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.acentrik.model.AuditEvent;
+import org.acentrik.model.AuditEventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Service for auditing sensitive operations
+ *
+ * Recording an event only puts it into a lock-free ring buffer, so audited requests don't wait
+ * for any I/O. A background writer drains the buffer in batches and appends each batch to the
+ * configured sinks (a rotated JSON lines file and/or the audit_events table). When the buffer
+ * is full, events are dropped and counted as audit.events.dropped rather than slowing down
+ * requests; sink failures are counted as audit.events.failed.
  */
 @Service
 public class AuditService {
 
-    private static final Logger logger = LoggerFactory.getLogger("security-audit");
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+
+    private final List<AuditSink> sinks;
+    private final AuditRingBuffer buffer;
+    private final AtomicLong droppedSinceLastReport = new AtomicLong();
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    @Value("${app.audit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${app.audit.idle-ms:100}")
+    private long idleMillis;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public AuditService(
+            ObjectProvider<AuditSink> sinks,
+            @Value("${app.audit.buffer-capacity:8192}") int bufferCapacity,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        // Both sinks can be switched off, which leaves the writer draining into nothing
+        this.sinks = sinks.orderedStream().toList();
+        this.buffer = new AuditRingBuffer(bufferCapacity);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("audit.events.pending", buffer, AuditRingBuffer::size).register(registry);
+            this.droppedCounter = Counter.builder("audit.events.dropped").register(registry);
+            this.failedCounter = Counter.builder("audit.events.failed").register(registry);
+        } else {
+            this.droppedCounter = null;
+            this.failedCounter = null;
+        }
+    }
+
+    /**
+     * Start the background writer
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Audit writer started with {} sinks and a buffer of {} events", sinks.size(), buffer.capacity());
+    }
+
+    /**
+     * Stop the background writer after it has written the buffered events
+     *
+     * @throws InterruptedException If interrupted while waiting for the writer
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Record an audit event without blocking
+     *
+     * @param event The event
+     */
+    public void record(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            droppedSinceLastReport.incrementAndGet();
+            if (droppedCounter != null) {
+                droppedCounter.increment();
+            }
+        }
+    }
 
     /**
      * Log an authentication event
-     * 
+     *
      * @param username The username
-     * @param eventType The event type (e.g., "LOGIN_SUCCESS", "LOGIN_FAILURE")
+     * @param eventType The event type (e.g., LOGIN_SUCCESS, LOGIN_FAILURE)
      * @param details Additional details about the event
      */
-    public void logAuthEvent(String username, String eventType, String details) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        String message = String.format("[%s] AUTH_EVENT: %s - User: %s - %s", 
-                timestamp, eventType, username, details);
-        logger.info(message);
+    public void logAuthEvent(String username, AuditEventType eventType, String details) {
+        record(new AuditEvent(eventType, username, null, null, details));
     }
 
     /**
      * Log a password change event
-     * 
+     *
      * @param username The username
-     * @param eventType The event type (e.g., "PASSWORD_CHANGE", "PASSWORD_RESET")
+     * @param eventType The event type (e.g., PASSWORD_CHANGE, PASSWORD_RESET)
      * @param details Additional details about the event
      */
-    public void logPasswordEvent(String username, String eventType, String details) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        String message = String.format("[%s] PASSWORD_EVENT: %s - User: %s - %s", 
-                timestamp, eventType, username, details);
-        logger.info(message);
+    public void logPasswordEvent(String username, AuditEventType eventType, String details) {
+        record(new AuditEvent(eventType, username, null, null, details));
     }
 
     /**
      * Log an offer letter event
-     * 
+     *
      * @param username The username
-     * @param eventType The event type (e.g., "GENERATE", "VIEW", "DOWNLOAD")
+     * @param eventType The event type (e.g., OFFER_LETTER_GENERATE, OFFER_LETTER_VIEW)
      * @param offerId The offer letter ID
+     * @param ownerUsername The username of the employee the offer letter belongs to
      * @param details Additional details about the event
      */
-    public void logOfferLetterEvent(String username, String eventType, Long offerId, String details) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        String message = String.format("[%s] OFFER_LETTER_EVENT: %s - User: %s - OfferID: %d - %s", 
-                timestamp, eventType, username, offerId, details);
-        logger.info(message);
+    public void logOfferLetterEvent(String username, AuditEventType eventType, Long offerId, String ownerUsername, String details) {
+        record(new AuditEvent(eventType, username, ownerUsername, offerId, details));
     }
 
     /**
      * Log a user management event
-     * 
+     *
      * @param adminUsername The admin username
-     * @param eventType The event type (e.g., "CREATE_USER", "DELETE_USER")
+     * @param eventType The event type (e.g., USER_TERMINATE)
      * @param targetUsername The target username
      * @param details Additional details about the event
      */
-    public void logUserManagementEvent(String adminUsername, String eventType, String targetUsername, String details) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        String message = String.format("[%s] USER_MANAGEMENT_EVENT: %s - Admin: %s - Target: %s - %s", 
-                timestamp, eventType, adminUsername, targetUsername, details);
-        logger.info(message);
+    public void logUserManagementEvent(String adminUsername, AuditEventType eventType, String targetUsername, String details) {
+        record(new AuditEvent(eventType, adminUsername, targetUsername, null, details));
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            buffer.drain(batch, batchSize);
+            if (batch.isEmpty()) {
+                if (!running) {
+                    break;
+                }
+                reportDropped();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleMillis));
+                continue;
+            }
+            write(batch);
+        }
+        for (AuditSink sink : sinks) {
+            sink.close();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        for (AuditSink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (Exception e) {
+                if (failedCounter != null) {
+                    failedCounter.increment(batch.size());
+                }
+                logger.error("Failed to write {} audit events to {}: {}", batch.size(), sink.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void reportDropped() {
+        long dropped = droppedSinceLastReport.getAndSet(0);
+        if (dropped > 0) {
+            logger.warn("Audit buffer was full, dropped {} audit events", dropped);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package org.acentrik.service;
+
+import org.acentrik.model.AuditEvent;
+
+import java.util.List;
+
+/**
+ * Destination that audit events are appended to
+ * Only called from the audit writer thread, so implementations need not be thread-safe.
+ */
+public interface AuditSink {
+
+    /**
+     * Append a batch of events
+     *
+     * @param events The events in the order they occurred
+     * @throws Exception If the events cannot be written
+     */
+    void write(List<AuditEvent> events) throws Exception;
+
+    /**
+     * Release resources when the audit writer stops
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,86 @@
+package org.acentrik.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for binary documents such as offer letter PDFs
+ *
+ * Blobs are addressed by the SHA-256 hash of their content, so storing the same
+ * content twice returns the same reference and only keeps one copy.
+ */
+public interface BlobStore {
+
+    /**
+     * Store content held in memory
+     *
+     * @param content The content to store
+     * @return The reference, hash and size of the stored blob
+     * @throws IOException If the content cannot be stored
+     */
+    StoredBlob store(byte[] content) throws IOException;
+
+    /**
+     * Store content read from a stream, without buffering it in memory
+     *
+     * @param content The content to store; the stream is not closed
+     * @return The reference, hash and size of the stored blob
+     * @throws IOException If the content cannot be read or stored
+     */
+    StoredBlob store(InputStream content) throws IOException;
+
+    /**
+     * Open a stored blob for reading
+     *
+     * @param ref The blob reference
+     * @return A channel positioned at the start of the blob
+     * @throws IOException If the blob does not exist or cannot be opened
+     */
+    SeekableByteChannel openChannel(String ref) throws IOException;
+
+    /**
+     * Get the local file backing a blob, if the store keeps blobs on the local file system
+     *
+     * @param ref The blob reference
+     * @return The path of the blob file, or empty if the blob isn't a local file
+     */
+    default Optional<Path> localPath(String ref) {
+        return Optional.empty();
+    }
+
+    /**
+     * Check if a blob exists
+     *
+     * @param ref The blob reference
+     * @return true if the blob exists
+     */
+    boolean exists(String ref);
+
+    /**
+     * Delete a blob
+     * Callers must make sure no other document still references the blob.
+     *
+     * @param ref The blob reference
+     * @return true if the blob existed and was deleted
+     * @throws IOException If the blob cannot be deleted
+     */
+    boolean delete(String ref) throws IOException;
+
+    /**
+     * A blob that has been stored
+     */
+    @Getter
+    @AllArgsConstructor
+    class StoredBlob {
+        private final String ref;
+        // Hex encoded SHA-256 of the content
+        private final String hash;
+        private final long size;
+    }
+}
@@ -0,0 +1,121 @@
+package org.acentrik.service;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal RFC 4180 style CSV parser for admin uploads
+ * Supports quoted fields, escaped quotes and quoted line breaks
+ */
+@Component
+public class CsvParser {
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    /**
+     * Parse a CSV document with a header row
+     *
+     * @param inputStream The CSV content (UTF-8)
+     * @return One map per data row, keyed by lower-cased header name, in file order
+     * @throws IOException If the stream cannot be read
+     * @throws IllegalArgumentException If the document has no header row or a quote is not closed
+     */
+    public List<Map<String, String>> parse(InputStream inputStream) throws IOException {
+        List<List<String>> records = readRecords(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        if (records.isEmpty()) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+
+        List<String> header = new ArrayList<>();
+        for (String name : records.get(0)) {
+            // Spreadsheet tools often save UTF-8 CSV with a byte order mark, which trim() keeps
+            if (header.isEmpty() && name.startsWith(BYTE_ORDER_MARK)) {
+                name = name.substring(BYTE_ORDER_MARK.length());
+            }
+            header.add(name.trim().toLowerCase(Locale.ROOT));
+        }
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 1; i < records.size(); i++) {
+            List<String> record = records.get(i);
+            // Skip blank lines
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int c = 0; c < header.size(); c++) {
+                row.put(header.get(c), c < record.size() ? record.get(c).trim() : "");
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<List<String>> readRecords(BufferedReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean hasContent = false;
+
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            char c = (char) ch;
+            hasContent = true;
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+                hasContent = false;
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (inQuotes) {
+            throw new IllegalArgumentException("CSV file contains an unterminated quoted field");
+        }
+        if (hasContent) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,253 @@
+package org.acentrik.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.acentrik.model.EmailStatus;
+import org.acentrik.model.OutboundEmail;
+import org.acentrik.repository.OutboundEmailRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Service for the persistent outbound mail queue
+ *
+ * Emails are stored in the outbound_emails table and delivered in batches by a pool of mail
+ * workers, so request threads don't wait for the SMTP exchange. Failed deliveries are retried with
+ * exponential backoff until the maximum number of attempts is reached. A worker claims an email
+ * before sending it; claims older than the claim lease are assumed to belong to a worker or node
+ * that stopped and are released back to the queue.
+ */
+@Service
+public class EmailQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailQueueService.class);
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final EmailService emailService;
+    private final ThreadPoolTaskExecutor mailWorkerExecutor;
+    // Identifies this instance's claims in the queue
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.mail.queue.batch-size:10}")
+    private int batchSize;
+
+    @Value("${app.mail.queue.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.queue.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.mail.queue.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    // Must be longer than a worker takes to send a batch, or a slow batch is sent twice
+    @Value("${app.mail.queue.claim-lease-seconds:900}")
+    private long claimLeaseSeconds = 900;
+
+    @Autowired
+    public EmailQueueService(
+            OutboundEmailRepository outboundEmailRepository,
+            EmailService emailService,
+            @Qualifier("mailWorkerExecutor") ThreadPoolTaskExecutor mailWorkerExecutor,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.emailService = emailService;
+        this.mailWorkerExecutor = mailWorkerExecutor;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            // Queried on each scrape, the status column is indexed
+            for (EmailStatus status : new EmailStatus[]{EmailStatus.PENDING, EmailStatus.SENDING}) {
+                Gauge.builder("mail.queue.size", outboundEmailRepository, repository -> repository.countByStatus(status))
+                        .description("Emails in the outbound mail queue")
+                        .tag("status", status.name().toLowerCase())
+                        .register(registry);
+            }
+        }
+    }
+
+    /**
+     * Release emails whose claim is older than the claim lease
+     * Runs at startup and then periodically, so emails claimed by a node that stopped are
+     * delivered by the remaining nodes. Claims of running workers are left alone.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.queue.claim-check-interval-ms:60000}")
+    public void releaseExpiredClaims() {
+        int released = outboundEmailRepository.releaseExpiredClaims(LocalDateTime.now().minusSeconds(claimLeaseSeconds));
+        if (released > 0) {
+            logger.info("Released {} interrupted email deliveries back to the queue", released);
+        }
+    }
+
+    /**
+     * Queue an email with PDF attachment for delivery
+     *
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param body Email body content
+     * @param pdfAttachment PDF file as byte array
+     * @param attachmentName Name for the attached file
+     * @return The queued email
+     */
+    public OutboundEmail enqueuePdfEmail(String to, String subject, String body,
+                                         byte[] pdfAttachment, String attachmentName) {
+        OutboundEmail email = outboundEmailRepository.save(new OutboundEmail(to, subject, body, pdfAttachment, attachmentName));
+        logger.info("Queued email {} to {}", email.getId(), to);
+        return email;
+    }
+
+    /**
+     * Get a queued email by its ID
+     *
+     * @param id The ID of the queued email
+     * @return Optional containing the email if found
+     */
+    public Optional<OutboundEmail> getEmail(Long id) {
+        return outboundEmailRepository.findById(id);
+    }
+
+    /**
+     * Claim due emails and hand them to the mail workers in batches
+     * Each batch is sent over one pooled SMTP connection. Only as many batches as the
+     * workers can accept are claimed per run.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.queue.poll-interval-ms:2000}")
+    public void dispatchDueEmails() {
+        int capacity = mailWorkerExecutor.getQueueCapacity() - mailWorkerExecutor.getQueueSize()
+                + mailWorkerExecutor.getMaxPoolSize() - mailWorkerExecutor.getActiveCount();
+        if (capacity <= 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = outboundEmailRepository.findDueIds(EmailStatus.PENDING, now, PageRequest.of(0, capacity * batchSize));
+        List<Long> batch = new ArrayList<>(batchSize);
+        for (Long id : dueIds) {
+            // Another node or poller run may have claimed it already
+            if (outboundEmailRepository.claim(id, instanceId, now) == 0) {
+                continue;
+            }
+            batch.add(id);
+            if (batch.size() == batchSize) {
+                if (!submit(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+    }
+
+    private boolean submit(List<Long> batch) {
+        try {
+            mailWorkerExecutor.execute(() -> deliver(batch));
+            return true;
+        } catch (RejectedExecutionException e) {
+            for (Long id : batch) {
+                outboundEmailRepository.transitionStatus(id, EmailStatus.SENDING, EmailStatus.PENDING);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Deliver a batch of claimed emails and record the outcome of each
+     *
+     * @param ids The IDs of the claimed emails
+     */
+    void deliver(List<Long> ids) {
+        List<OutboundEmail> emails = new ArrayList<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        for (OutboundEmail email : outboundEmailRepository.findAllById(ids)) {
+            email.setAttempts(email.getAttempts() + 1);
+            try {
+                messages.add(emailService.createPdfMessage(email.getRecipient(), email.getSubject(), email.getBody(),
+                        email.getAttachment(), email.getAttachmentName()));
+                emails.add(email);
+            } catch (Exception e) {
+                // The message can't be built (e.g. invalid address), retrying won't help
+                recordFailure(email, e, true);
+                outboundEmailRepository.save(email);
+            }
+        }
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        List<Exception> results;
+        try {
+            results = emailService.sendMessages(messages);
+        } catch (RuntimeException e) {
+            results = Collections.nCopies(emails.size(), e);
+        }
+
+        for (int i = 0; i < emails.size(); i++) {
+            OutboundEmail email = emails.get(i);
+            Exception failure = results.get(i);
+            if (failure == null) {
+                email.setStatus(EmailStatus.SENT);
+                email.setSentAt(LocalDateTime.now());
+                email.setLastError(null);
+                // The offer letter is stored separately, no need to keep a second copy
+                email.setAttachment(null);
+                email.setBody("");
+                logger.info("Sent email {} to {}", email.getId(), email.getRecipient());
+            } else {
+                recordFailure(email, failure, false);
+            }
+        }
+        outboundEmailRepository.saveAll(emails);
+    }
+
+    private void recordFailure(OutboundEmail email, Exception e, boolean permanent) {
+        email.setLastError(truncate(e.getMessage(), 1000));
+        if (permanent || email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailStatus.FAILED);
+            email.setBody("");
+            email.setAttachment(null);
+            logger.error("Giving up on email {} to {} after {} attempts: {}",
+                    email.getId(), email.getRecipient(), email.getAttempts(), e.getMessage());
+        } else {
+            email.setStatus(EmailStatus.PENDING);
+            email.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(email.getAttempts())));
+            logger.warn("Failed to send email {} to {} (attempt {}), retrying at {}: {}",
+                    email.getId(), email.getRecipient(), email.getAttempts(), email.getNextAttemptAt(), e.getMessage());
+        }
+    }
+
+    /**
+     * Exponential backoff: initial, 2x, 4x, ... capped at the maximum backoff
+     *
+     * @param attempts The number of attempts made so far
+     * @return The delay before the next attempt in seconds
+     */
+    long backoffSeconds(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(initialBackoffSeconds << exponent, maxBackoffSeconds);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+}
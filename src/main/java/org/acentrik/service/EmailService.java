@@ -1,13 +1,18 @@
 package org.acentrik.service;
 
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class EmailService {
 
@@ -15,6 +20,15 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    // Optional so the service still works with a plain JavaMailSender
+    @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
+    @Autowired(required = false)
+    private SmtpTransportPool transportPool;
+
+    @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
+    @Autowired
+    private OfferLetterMetrics metrics;
+
     /**
      * Sends an email with PDF attachment
      *
@@ -28,6 +42,37 @@ public class EmailService {
     public void sendPdfEmail(String to, String subject, String body,
                              byte[] pdfAttachment, String attachmentName) throws MessagingException {
 
+        MimeMessage message = createPdfMessage(to, subject, body, pdfAttachment, attachmentName);
+
+        Timer.Sample sample = Timer.start();
+        boolean sent = false;
+        try {
+            if (isPooled()) {
+                transportPool.send(message);
+            } else {
+                mailSender.send(message);
+            }
+            sent = true;
+        } finally {
+            sample.stop(metrics.emailSendTimer());
+            metrics.recordEmails(sent ? 1 : 0, sent ? 0 : 1);
+        }
+    }
+
+    /**
+     * Builds an email with PDF attachment without sending it
+     *
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param body Email body content
+     * @param pdfAttachment PDF file as byte array
+     * @param attachmentName Name for the attached file
+     * @return The assembled message
+     * @throws MessagingException If the message cannot be assembled
+     */
+    public MimeMessage createPdfMessage(String to, String subject, String body,
+                                        byte[] pdfAttachment, String attachmentName) throws MessagingException {
+
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true);
 
@@ -38,6 +83,43 @@ public class EmailService {
         // Attach the PDF
         helper.addAttachment(attachmentName, new ByteArrayResource(pdfAttachment), "application/pdf");
 
-        mailSender.send(message);
+        return message;
+    }
+
+    /**
+     * Sends a batch of messages, reusing a pooled SMTP connection when available
+     *
+     * @param messages The messages to send
+     * @return One entry per message: null if it was sent, otherwise the exception that prevented it
+     */
+    public List<Exception> sendMessages(List<MimeMessage> messages) {
+        Timer.Sample sample = Timer.start();
+        List<Exception> results = sendBatch(messages);
+        sample.stop(metrics.emailSendTimer());
+
+        int failed = (int) results.stream().filter(result -> result != null).count();
+        metrics.recordEmails(results.size() - failed, failed);
+        return results;
+    }
+
+    private List<Exception> sendBatch(List<MimeMessage> messages) {
+        if (isPooled()) {
+            return transportPool.sendBatch(messages);
+        }
+
+        List<Exception> results = new ArrayList<>(messages.size());
+        for (MimeMessage message : messages) {
+            try {
+                mailSender.send(message);
+                results.add(null);
+            } catch (MailException e) {
+                results.add(e);
+            }
+        }
+        return results;
+    }
+
+    private boolean isPooled() {
+        return transportPool != null && transportPool.isEnabled();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,258 @@
+package org.acentrik.service;
+
+import org.acentrik.config.PooledPasswordEncoder;
+import org.acentrik.model.EmployeeImportResult;
+import org.acentrik.model.User;
+import org.acentrik.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Service for provisioning employee accounts in bulk
+ *
+ * Unlike registering users one by one, an import checks all usernames for existence in a
+ * few IN queries, hashes the passwords in parallel on the password hashing pool and writes
+ * the accounts with batched JDBC inserts. Users keep IDENTITY ids, which rule out Hibernate's
+ * insert batching, so the rows are inserted with JdbcTemplate instead of through the entity.
+ */
+@Service
+public class EmployeeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeImportService.class);
+
+    private static final String INSERT_USER = "INSERT INTO users (username, password, role, failed_login_attempts, "
+            + "account_locked, last_password_change, password_expiry_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Keeps the IN lists well below database parameter limits
+    private static final int EXISTENCE_CHECK_CHUNK = 1000;
+
+    private final CsvParser csvParser;
+    private final UserRepository userRepository;
+    private final PasswordValidator passwordValidator;
+    private final PooledPasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.users.import.max-rows:10000}")
+    private int maxRows;
+
+    @Value("${app.users.import.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    public EmployeeImportService(
+            CsvParser csvParser,
+            UserRepository userRepository,
+            PasswordValidator passwordValidator,
+            PooledPasswordEncoder passwordEncoder,
+            @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.csvParser = csvParser;
+        this.userRepository = userRepository;
+        this.passwordValidator = passwordValidator;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import employee accounts from a CSV file
+     * Expected columns: username (or email) and an optional password. Rows without a password
+     * get a random one, which is returned in the result. All accounts get the USER role.
+     *
+     * @param inputStream The CSV content
+     * @return The accepted and rejected rows
+     * @throws IOException If the stream cannot be read
+     * @throws IllegalArgumentException If the file cannot be parsed or has too many rows
+     */
+    public EmployeeImportResult importCsv(InputStream inputStream) throws IOException {
+        List<Map<String, String>> records = csvParser.parse(inputStream);
+        if (records.isEmpty()) {
+            throw new IllegalArgumentException("CSV file has no employee rows");
+        }
+        if (records.size() > maxRows) {
+            throw new IllegalArgumentException("Import is limited to " + maxRows + " rows");
+        }
+
+        EmployeeImportResult result = new EmployeeImportResult();
+        List<Candidate> candidates = validate(records, result);
+        candidates = removeExisting(candidates, result);
+        candidates = hashPasswords(candidates, result);
+        insert(candidates, result);
+
+        result.getAccepted().sort(Comparator.comparingInt(EmployeeImportResult.AcceptedRow::getRow));
+        result.getRejected().sort(Comparator.comparingInt(EmployeeImportResult.RejectedRow::getRow));
+        logger.info("Imported {} employees, rejected {} rows", result.getAccepted().size(), result.getRejected().size());
+        return result;
+    }
+
+    private List<Candidate> validate(List<Map<String, String>> records, EmployeeImportResult result) {
+        List<Candidate> candidates = new ArrayList<>(records.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < records.size(); i++) {
+            int row = i + 1;
+            Map<String, String> record = records.get(i);
+            String username = record.get("username");
+            if (username == null || username.isEmpty()) {
+                username = record.get("email");
+            }
+            if (username == null || username.isEmpty()) {
+                result.getRejected().add(new EmployeeImportResult.RejectedRow(row, username, "Username is required"));
+                continue;
+            }
+            if (!seen.add(username)) {
+                result.getRejected().add(new EmployeeImportResult.RejectedRow(row, username, "Duplicate username in file"));
+                continue;
+            }
+
+            String password = record.get("password");
+            String generatedPassword = null;
+            if (password == null || password.isEmpty()) {
+                generatedPassword = passwordValidator.generateRandomPassword();
+                password = generatedPassword;
+            } else {
+                List<String> errors = passwordValidator.validatePasswordComplexity(password);
+                if (!errors.isEmpty()) {
+                    result.getRejected().add(new EmployeeImportResult.RejectedRow(row, username,
+                            "Password does not meet complexity requirements: " + String.join(", ", errors)));
+                    continue;
+                }
+            }
+            candidates.add(new Candidate(row, username, password, generatedPassword));
+        }
+        return candidates;
+    }
+
+    private List<Candidate> removeExisting(List<Candidate> candidates, EmployeeImportResult result) {
+        Set<String> existing = findExistingUsernames(candidates);
+        List<Candidate> remaining = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            if (existing.contains(candidate.username)) {
+                result.getRejected().add(new EmployeeImportResult.RejectedRow(candidate.row, candidate.username, "Username already exists"));
+            } else {
+                remaining.add(candidate);
+            }
+        }
+        return remaining;
+    }
+
+    private Set<String> findExistingUsernames(List<Candidate> candidates) {
+        Set<String> existing = new HashSet<>();
+        for (int start = 0; start < candidates.size(); start += EXISTENCE_CHECK_CHUNK) {
+            List<String> chunk = new ArrayList<>(EXISTENCE_CHECK_CHUNK);
+            for (Candidate candidate : candidates.subList(start, Math.min(start + EXISTENCE_CHECK_CHUNK, candidates.size()))) {
+                chunk.add(candidate.username);
+            }
+            existing.addAll(userRepository.findExistingUsernames(chunk));
+        }
+        return existing;
+    }
+
+    private List<Candidate> hashPasswords(List<Candidate> candidates, EmployeeImportResult result) {
+        // Only a small window is queued at a time, so logins can still get onto the hashing pool
+        int window = passwordHashingExecutor.getMaxPoolSize() * 2;
+        Deque<Candidate> inFlight = new ArrayDeque<>();
+        List<Candidate> hashed = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            while (inFlight.size() >= window) {
+                await(inFlight.poll(), hashed, result);
+            }
+            try {
+                candidate.hash = passwordEncoder.encodeAsync(candidate.password);
+                inFlight.add(candidate);
+            } catch (TaskRejectedException e) {
+                result.getRejected().add(new EmployeeImportResult.RejectedRow(candidate.row, candidate.username,
+                        "Password hashing is busy, please retry this row"));
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            await(inFlight.poll(), hashed, result);
+        }
+        return hashed;
+    }
+
+    private void await(Candidate candidate, List<Candidate> hashed, EmployeeImportResult result) {
+        try {
+            candidate.encodedPassword = candidate.hash.join();
+            hashed.add(candidate);
+        } catch (CompletionException e) {
+            result.getRejected().add(new EmployeeImportResult.RejectedRow(candidate.row, candidate.username,
+                    "Password hashing failed"));
+        }
+    }
+
+    private void insert(List<Candidate> candidates, EmployeeImportResult result) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try {
+            insertBatch(candidates);
+        } catch (DataIntegrityViolationException e) {
+            // Some usernames were registered after the existence check; drop them and retry once
+            candidates = removeExisting(candidates, result);
+            insertBatch(candidates);
+        }
+        for (Candidate candidate : candidates) {
+            result.getAccepted().add(new EmployeeImportResult.AcceptedRow(candidate.row, candidate.username, candidate.generatedPassword));
+        }
+    }
+
+    private void insertBatch(List<Candidate> candidates) {
+        // All rows are written in one transaction, so a failed batch leaves nothing behind
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER, candidates, batchSize,
+                (ps, candidate) -> {
+                    // The entity constructor supplies the same defaults as a single registration
+                    User user = new User(candidate.username, candidate.encodedPassword, "USER");
+                    ps.setString(1, user.getUsername());
+                    ps.setString(2, user.getPassword());
+                    ps.setString(3, user.getRole());
+                    ps.setInt(4, user.getFailedLoginAttempts());
+                    ps.setBoolean(5, user.isAccountLocked());
+                    ps.setTimestamp(6, Timestamp.valueOf(user.getLastPasswordChange()));
+                    ps.setTimestamp(7, Timestamp.valueOf(user.getPasswordExpiryDate()));
+                }));
+    }
+
+    private static final class Candidate {
+        final int row;
+        final String username;
+        final String password;
+        final String generatedPassword;
+        CompletableFuture<String> hash;
+        String encodedPassword;
+
+        Candidate(int row, String username, String password, String generatedPassword) {
+            this.row = row;
+            this.username = username;
+            this.password = password;
+            this.generatedPassword = generatedPassword;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.acentrik.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acentrik.model.AuditEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends audit events to a JSON lines file, rotated by size
+ *
+ * The active file is only ever appended to. When it exceeds the maximum size it is renamed
+ * with a timestamp suffix and a new file is started; the oldest rotated files beyond the
+ * configured number are deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.file.enabled", havingValue = "true", matchIfMissing = true)
+public class FileAuditSink implements AuditSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileAuditSink.class);
+
+    private static final DateTimeFormatter ROTATION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final ObjectMapper objectMapper;
+
+    private OutputStream out;
+    private long size;
+
+    @Autowired
+    public FileAuditSink(
+            @Value("${app.audit.file.path:./data/audit/audit.log}") String path,
+            @Value("${app.audit.file.max-bytes:52428800}") long maxBytes,
+            @Value("${app.audit.file.max-files:10}") int maxFiles,
+            ObjectMapper objectMapper) {
+        this.file = Paths.get(path).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) throws IOException {
+        try {
+            for (AuditEvent event : events) {
+                byte[] line = format(event);
+                if (out == null) {
+                    open();
+                } else if (size + line.length > maxBytes && size > 0) {
+                    rotate();
+                }
+                out.write(line);
+                size += line.length;
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Reopen on the next batch, the file may have been moved or the disk freed up
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close audit file {}: {}", file, e.getMessage());
+            }
+            out = null;
+        }
+    }
+
+    private byte[] format(AuditEvent event) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("time", event.getOccurredAt().toString());
+        line.put("category", event.getType().getCategory());
+        line.put("type", event.getType());
+        line.put("actor", event.getActor());
+        line.put("target", event.getTarget());
+        line.put("offerLetterId", event.getOfferLetterId());
+        line.put("details", event.getDetails());
+        return (objectMapper.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(file.getParent());
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        size = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        close();
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        Files.move(file, file.resolveSibling(base + "-" + LocalDateTime.now().format(ROTATION_SUFFIX) + extension));
+        deleteOldFiles(base, extension);
+        open();
+    }
+
+    private void deleteOldFiles(String base, String extension) throws IOException {
+        List<Path> rotated = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(file.getParent(), base + "-*" + extension)) {
+            stream.forEach(rotated::add);
+        }
+        // The timestamp suffix sorts chronologically
+        rotated.sort(null);
+        for (int i = 0; i < rotated.size() - maxFiles; i++) {
+            Files.deleteIfExists(rotated.get(i));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.acentrik.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BlobStore} that keeps blobs as files on the local file system
+ *
+ * Blobs are stored under root/ab/cd/abcd..., where the file name is the SHA-256 of the content.
+ * New blobs are written to a temporary file and atomically moved into place, so readers never
+ * see a partially written blob and concurrent writers of the same content don't conflict.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.blob.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern REF_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+
+    public FileSystemBlobStore(@Value("${app.storage.blob.root:./data/blobs}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public StoredBlob store(byte[] content) throws IOException {
+        MessageDigest digest = newDigest();
+        String hash = HexFormat.of().formatHex(digest.digest(content));
+        Path target = pathFor(hash);
+
+        // Identical content is already stored
+        if (Files.exists(target)) {
+            return new StoredBlob(hash, hash, content.length);
+        }
+
+        Path temp = createTempFile(target);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        moveIntoPlace(temp, target);
+        return new StoredBlob(hash, hash, content.length);
+    }
+
+    @Override
+    public StoredBlob store(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        Files.createDirectories(root);
+        // The hash is only known after reading, so write to the root first and move into the shard
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            byte[] chunk = new byte[BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            int read;
+            while ((read = content.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                size += read;
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String hash = HexFormat.of().formatHex(digest.digest());
+        Path target = pathFor(hash);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(temp);
+        } else {
+            Files.createDirectories(target.getParent());
+            moveIntoPlace(temp, target);
+        }
+        return new StoredBlob(hash, hash, size);
+    }
+
+    @Override
+    public SeekableByteChannel openChannel(String ref) throws IOException {
+        return FileChannel.open(pathFor(ref), StandardOpenOption.READ);
+    }
+
+    @Override
+    public Optional<Path> localPath(String ref) {
+        Path path = pathFor(ref);
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public boolean exists(String ref) {
+        return Files.exists(pathFor(ref));
+    }
+
+    @Override
+    public boolean delete(String ref) throws IOException {
+        return Files.deleteIfExists(pathFor(ref));
+    }
+
+    private Path pathFor(String ref) {
+        if (ref == null || !REF_PATTERN.matcher(ref).matches()) {
+            throw new IllegalArgumentException("Invalid blob reference: " + ref);
+        }
+        return root.resolve(ref.substring(0, 2)).resolve(ref.substring(2, 4)).resolve(ref);
+    }
+
+    private Path createTempFile(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return Files.createTempFile(target.getParent(), "upload-", ".tmp");
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            // If another writer stored the same content first, the rename replaces identical bytes
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.acentrik.service;
+
+import org.acentrik.model.AuditEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Appends audit events to the audit_events table, one JDBC batch per drained batch of events
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.jdbc.enabled", havingValue = "true")
+public class JdbcAuditSink implements AuditSink {
+
+    private static final String INSERT_EVENT = "INSERT INTO audit_events (occurred_at, type, actor, target, offer_letter_id, details) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_DETAILS_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JdbcAuditSink(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(event.getOccurredAt()));
+            ps.setString(2, event.getType().name());
+            ps.setString(3, event.getActor());
+            ps.setString(4, event.getTarget());
+            if (event.getOfferLetterId() != null) {
+                ps.setLong(5, event.getOfferLetterId());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            String details = event.getDetails();
+            ps.setString(6, details != null && details.length() > MAX_DETAILS_LENGTH
+                    ? details.substring(0, MAX_DETAILS_LENGTH) : details);
+        });
+    }
+}
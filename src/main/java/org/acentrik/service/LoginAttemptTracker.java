@@ -0,0 +1,265 @@
+package org.acentrik.service;
+
+import jakarta.annotation.PreDestroy;
+import org.acentrik.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory tracker of failed login attempts with write-behind to the users table
+ *
+ * Login outcomes only cause a database write when they change the stored state: a success
+ * while there are no failed attempts writes nothing. Changed counters are kept in memory and
+ * flushed in one JDBC batch per interval, so a burst of logins turns into at most one update
+ * per user. Locking an account is the exception: it is written immediately, so the lock
+ * survives a restart and applies to every node. Counters below the lock threshold are per
+ * node until they are flushed. Resetting a user discards their in-memory state under the same
+ * lock as the writes, so a flush or lock never writes a counter from before the reset.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptTracker.class);
+
+    private static final String UPDATE_ATTEMPTS = "UPDATE users SET failed_login_attempts = ? WHERE username = ? AND account_locked = ?";
+    private static final String LOCK_ACCOUNT = "UPDATE users SET failed_login_attempts = ?, account_locked = ? WHERE username = ?";
+    private static final String RESET_ACCOUNT = "UPDATE users SET failed_login_attempts = 0, account_locked = ? WHERE username = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCache userCache;
+
+    // ConcurrentHashMap locks per bin, so logins of different users don't contend
+    private final Map<String, AttemptState> states = new ConcurrentHashMap<>();
+    // Held while writing to the users table, so a reset can't interleave with a flush or lock
+    private final Lock writeLock = new ReentrantLock();
+
+    @Autowired
+    public LoginAttemptTracker(JdbcTemplate jdbcTemplate, UserCache userCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userCache = userCache;
+    }
+
+    /**
+     * Record a successful login
+     * Clears the failed attempts; nothing is written if there weren't any.
+     *
+     * @param user The user as last loaded, used when the user has no in-memory state yet
+     */
+    public void recordSuccess(User user) {
+        AttemptState state = states.get(user.getUsername());
+        if (state == null && user.getFailedLoginAttempts() == 0) {
+            return;
+        }
+        state = stateFor(user);
+        synchronized (state) {
+            if (state.invalidated || state.failedAttempts == 0) {
+                return;
+            }
+            state.failedAttempts = 0;
+            state.dirty = true;
+        }
+    }
+
+    /**
+     * Record a failed login attempt, locking the account when the threshold is reached
+     *
+     * @param user The user as last loaded, used when the user has no in-memory state yet
+     * @return true if the account is now locked
+     */
+    public boolean recordFailure(User user) {
+        AttemptState state = stateFor(user);
+        int attempts;
+        synchronized (state) {
+            if (state.invalidated) {
+                // Reset concurrently, the attempt predates the reset
+                return false;
+            }
+            if (state.locked) {
+                return true;
+            }
+            state.failedAttempts++;
+            if (state.failedAttempts < User.MAX_FAILED_LOGIN_ATTEMPTS) {
+                state.dirty = true;
+                return false;
+            }
+            state.locked = true;
+            state.dirty = false;
+            attempts = state.failedAttempts;
+        }
+
+        // A lock must not be lost or deferred, so it is written right away
+        writeLock.lock();
+        try {
+            synchronized (state) {
+                if (state.invalidated) {
+                    return false;
+                }
+            }
+            jdbcTemplate.update(LOCK_ACCOUNT, attempts, true, user.getUsername());
+        } finally {
+            writeLock.unlock();
+        }
+        userCache.invalidate(user.getUsername());
+        release(user.getUsername(), state);
+        logger.info("Locked account {} after {} failed login attempts", user.getUsername(), attempts);
+        return true;
+    }
+
+    /**
+     * Check whether an account has been locked by this tracker
+     *
+     * @param username The username
+     * @return true if the account is locked
+     */
+    public boolean isLocked(String username) {
+        AttemptState state = states.get(username);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            return state.locked;
+        }
+    }
+
+    /**
+     * Drop the in-memory state of a user, e.g. when the user is deleted
+     *
+     * @param username The username
+     */
+    public void forget(String username) {
+        writeLock.lock();
+        try {
+            invalidate(username);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Clear a user's failed attempts and unlock the account, e.g. after a password reset
+     * Pending counters of the user are discarded, so a later flush doesn't restore them.
+     *
+     * @param username The username
+     */
+    public void reset(String username) {
+        writeLock.lock();
+        try {
+            invalidate(username);
+            jdbcTemplate.update(RESET_ACCOUNT, false, username);
+        } finally {
+            writeLock.unlock();
+        }
+        userCache.invalidate(username);
+    }
+
+    /**
+     * Write the changed attempt counters to the users table in one batch
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-attempts.flush-interval-ms:5000}")
+    public void flush() {
+        List<String> usernames = new ArrayList<>();
+        writeLock.lock();
+        try {
+            List<Object[]> updates = new ArrayList<>();
+            states.forEach((username, state) -> {
+                synchronized (state) {
+                    if (state.dirty && !state.invalidated) {
+                        state.dirty = false;
+                        usernames.add(username);
+                        // Never overwrite a lock written by another node
+                        updates.add(new Object[]{state.failedAttempts, username, false});
+                    }
+                }
+            });
+            if (updates.isEmpty()) {
+                return;
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_ATTEMPTS, updates);
+            } catch (RuntimeException e) {
+                // Mark them dirty again so the next flush retries
+                for (String username : usernames) {
+                    AttemptState state = states.get(username);
+                    if (state != null) {
+                        synchronized (state) {
+                            state.dirty = true;
+                        }
+                    }
+                }
+                logger.warn("Failed to flush login attempts of {} users: {}", usernames.size(), e.getMessage());
+                return;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        for (String username : usernames) {
+            userCache.invalidate(username);
+            AttemptState state = states.get(username);
+            if (state != null) {
+                release(username, state);
+            }
+        }
+        logger.debug("Flushed login attempts of {} users", usernames.size());
+    }
+
+    /**
+     * Flush pending counters before the application stops
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void invalidate(String username) {
+        AttemptState state = states.remove(username);
+        if (state != null) {
+            synchronized (state) {
+                state.invalidated = true;
+                state.dirty = false;
+            }
+        }
+    }
+
+    private AttemptState stateFor(User user) {
+        return states.computeIfAbsent(user.getUsername(),
+                username -> new AttemptState(user.getFailedLoginAttempts(), user.isAccountLocked()));
+    }
+
+    /**
+     * Forget a user's state once it matches the database, unless it changed again meanwhile
+     * The next login starts from the stored values; the cache entry was invalidated after the write.
+     */
+    private void release(String username, AttemptState state) {
+        states.computeIfPresent(username, (key, current) -> {
+            synchronized (current) {
+                return current == state && !current.dirty ? null : current;
+            }
+        });
+    }
+
+    private static final class AttemptState {
+        int failedAttempts;
+        boolean locked;
+        boolean dirty;
+        // Set when the state was discarded by a reset; it must not be written any more
+        boolean invalidated;
+
+        AttemptState(int failedAttempts, boolean locked) {
+            this.failedAttempts = failedAttempts;
+            this.locked = locked;
+        }
+    }
+}
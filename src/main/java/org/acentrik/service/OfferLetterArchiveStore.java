@@ -0,0 +1,392 @@
+package org.acentrik.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Packed, compressed segment files holding archived offer letter PDFs
+ *
+ * A segment is written once by the retention job and never changed afterwards. Each entry is a
+ * header (magic, raw length, stored length, CRC32 of the raw content) followed by the deflated PDF,
+ * so an entry can be read on its own from its offset. Identical PDFs in one segment share an entry.
+ * Archived offer letters reference their PDF as archive:segment:offset.
+ */
+@Component
+public class OfferLetterArchiveStore {
+
+    private static final String REF_PREFIX = "archive:";
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("segment-[0-9]{14}-[0-9a-f]{8}\\.olz");
+    private static final Pattern REF_PATTERN = Pattern.compile("archive:(segment-[0-9]{14}-[0-9a-f]{8}\\.olz):([0-9]+)");
+    private static final DateTimeFormatter SEGMENT_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final int MAGIC = 0x4f4c5a31; // "OLZ1"
+    private static final int HEADER_SIZE = 16;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+
+    public OfferLetterArchiveStore(@Value("${app.offer-letters.archive.root:./data/archive}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Check if a content reference points into an archive segment
+     *
+     * @param ref The content reference
+     * @return true if the reference is an archive reference
+     */
+    public static boolean isArchiveRef(String ref) {
+        return ref != null && ref.startsWith(REF_PREFIX);
+    }
+
+    /**
+     * Build the content reference of an archived PDF
+     *
+     * @param segment The segment file name
+     * @param offset The offset of the PDF's entry in the segment
+     * @return The archive reference
+     */
+    public static String ref(String segment, long offset) {
+        return REF_PREFIX + segment + ":" + offset;
+    }
+
+    /**
+     * Start writing a new segment
+     * Nothing is visible until {@link SegmentWriter#commit()} is called; closing an uncommitted
+     * writer discards the segment.
+     *
+     * @return The writer of the new segment, which the caller must close
+     * @throws IOException If the segment file cannot be created
+     */
+    public SegmentWriter newSegment() throws IOException {
+        String name = "segment-" + LocalDateTime.now().format(SEGMENT_TIME) + "-"
+                + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt()) + ".olz";
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "segment-", ".tmp");
+        return new SegmentWriter(name, temp);
+    }
+
+    /**
+     * Read an archived PDF into memory
+     *
+     * @param ref The archive reference
+     * @return The PDF content
+     * @throws IOException If the segment cannot be read or the entry is corrupt
+     */
+    public byte[] read(String ref) throws IOException {
+        Matcher matcher = REF_PATTERN.matcher(ref == null ? "" : ref);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid archive reference: " + ref);
+        }
+        long offset = Long.parseLong(matcher.group(2));
+
+        try (FileChannel channel = FileChannel.open(segmentPath(matcher.group(1)), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, offset);
+            header.flip();
+            int magic = header.getInt();
+            int rawLength = header.getInt();
+            int storedLength = header.getInt();
+            int crc = header.getInt();
+            if (magic != MAGIC || rawLength < 0 || storedLength < 0) {
+                throw new IOException("No archive entry at " + ref);
+            }
+
+            ByteBuffer stored = ByteBuffer.allocate(storedLength);
+            readFully(channel, stored, offset + HEADER_SIZE);
+
+            byte[] content = inflate(stored.array(), rawLength);
+            CRC32 checksum = new CRC32();
+            checksum.update(content);
+            if ((int) checksum.getValue() != crc) {
+                throw new IOException("Checksum mismatch in archive entry " + ref);
+            }
+            return content;
+        }
+    }
+
+    /**
+     * Open an archived PDF as a seekable channel
+     * The entry is inflated into memory; archived letters are read rarely and PDFs are small.
+     *
+     * @param ref The archive reference
+     * @return A read-only channel positioned at the start of the PDF, which the caller must close
+     * @throws IOException If the segment cannot be read or the entry is corrupt
+     */
+    public SeekableByteChannel openChannel(String ref) throws IOException {
+        return new ByteArrayChannel(read(ref));
+    }
+
+    /**
+     * Delete a segment file
+     * Callers must make sure no archived offer letter still references the segment.
+     *
+     * @param segment The segment file name
+     * @return true if the segment existed and was deleted
+     * @throws IOException If the segment cannot be deleted
+     */
+    public boolean delete(String segment) throws IOException {
+        return Files.deleteIfExists(segmentPath(segment));
+    }
+
+    private Path segmentPath(String segment) {
+        if (segment == null || !SEGMENT_PATTERN.matcher(segment).matches()) {
+            throw new IllegalArgumentException("Invalid archive segment: " + segment);
+        }
+        return root.resolve(segment);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Archive entry is truncated");
+            }
+        }
+    }
+
+    private static byte[] inflate(byte[] stored, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            byte[] content = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(content, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IOException("Archive entry is truncated");
+            }
+            return content;
+        } catch (DataFormatException e) {
+            throw new IOException("Archive entry is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Writes the entries of one new segment
+     */
+    public class SegmentWriter implements Closeable {
+
+        private final String name;
+        private final Path temp;
+        private final FileChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        // Offsets of the entries written so far by content hash
+        private final Map<String, Long> offsetsByHash = new HashMap<>();
+        private long size;
+        private boolean committed;
+
+        private SegmentWriter(String name, Path temp) throws IOException {
+            this.name = name;
+            this.temp = temp;
+            this.channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * @return The file name the segment gets when committed
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The number of bytes written to the segment so far
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * Append a PDF to the segment
+         *
+         * @param contentHash The hex encoded SHA-256 of the PDF, used to store identical PDFs once; may be null
+         * @param content The PDF content
+         * @return The offset of the PDF's entry in the segment
+         * @throws IOException If the entry cannot be written
+         */
+        public long append(String contentHash, byte[] content) throws IOException {
+            if (contentHash != null && offsetsByHash.containsKey(contentHash)) {
+                return offsetsByHash.get(contentHash);
+            }
+
+            byte[] stored = deflate(content);
+            CRC32 checksum = new CRC32();
+            checksum.update(content);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(content.length)
+                    .putInt(stored.length)
+                    .putInt((int) checksum.getValue());
+            header.flip();
+
+            long offset = size;
+            ByteBuffer[] entry = {header, ByteBuffer.wrap(stored)};
+            long remaining = HEADER_SIZE + stored.length;
+            while (remaining > 0) {
+                remaining -= channel.write(entry);
+            }
+            size += HEADER_SIZE + stored.length;
+
+            if (contentHash != null) {
+                offsetsByHash.put(contentHash, offset);
+            }
+            return offset;
+        }
+
+        /**
+         * Make the segment durable and move it into place under its final name
+         *
+         * @return The segment file name
+         * @throws IOException If the segment cannot be synced or moved
+         */
+        public String commit() throws IOException {
+            channel.force(true);
+            channel.close();
+            Path target = segmentPath(name);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target);
+            }
+            committed = true;
+            return name;
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            channel.close();
+            if (!committed) {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private byte[] deflate(byte[] content) {
+            deflater.reset();
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2 + 64);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Read-only channel over a PDF held in memory
+     */
+    static class ByteArrayChannel implements SeekableByteChannel {
+
+        private final byte[] content;
+        private long position;
+        private boolean open = true;
+
+        ByteArrayChannel(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            ensureOpen();
+            if (position >= content.length) {
+                return -1;
+            }
+            int length = (int) Math.min(dst.remaining(), content.length - position);
+            dst.put(content, (int) position, length);
+            position += length;
+            return length;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            ensureOpen();
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            ensureOpen();
+            if (newPosition < 0) {
+                throw new IllegalArgumentException("Negative position");
+            }
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            ensureOpen();
+            return content.length;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        private void ensureOpen() throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+        }
+    }
+}
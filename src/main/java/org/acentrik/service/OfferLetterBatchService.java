@@ -0,0 +1,246 @@
+package org.acentrik.service;
+
+import org.acentrik.model.AuditEventType;
+import org.acentrik.model.FormData;
+import org.acentrik.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Service for generating offer letters in bulk
+ *
+ * Rows are rendered in parallel on the bounded PDF render executor and written to a ZIP
+ * stream in submission order. Only a small window of rows is in flight at any time,
+ * so memory stays bounded regardless of the batch size.
+ */
+@Service
+public class OfferLetterBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferLetterBatchService.class);
+
+    static final String REPORT_ENTRY = "batch-report.csv";
+
+    private final OfferLetterGenerationService generationService;
+    private final CsvParser csvParser;
+    private final AuditService auditService;
+    private final ThreadPoolTaskExecutor pdfRenderExecutor;
+
+    @Value("${app.pdf.batch.max-rows:1000}")
+    private int maxRows;
+
+    @Autowired
+    public OfferLetterBatchService(
+            OfferLetterGenerationService generationService,
+            CsvParser csvParser,
+            AuditService auditService,
+            @Qualifier("pdfRenderExecutor") ThreadPoolTaskExecutor pdfRenderExecutor) {
+        this.generationService = generationService;
+        this.csvParser = csvParser;
+        this.auditService = auditService;
+        this.pdfRenderExecutor = pdfRenderExecutor;
+    }
+
+    /**
+     * Parse form data rows from a CSV file
+     * Expected columns: firstName, lastName, email, domain, manager, joiningDate (yyyy-MM-dd), role
+     *
+     * @param inputStream The CSV content
+     * @return The parsed rows
+     * @throws IOException If the stream cannot be read
+     * @throws IllegalArgumentException If a row cannot be parsed
+     */
+    public List<FormData> parseCsv(InputStream inputStream) throws IOException {
+        List<Map<String, String>> records = csvParser.parse(inputStream);
+        List<FormData> rows = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Map<String, String> record = records.get(i);
+            FormData formData = new FormData();
+            formData.setFirstName(record.get("firstname"));
+            formData.setLastName(record.get("lastname"));
+            formData.setEmail(record.get("email"));
+            formData.setDomain(record.get("domain"));
+            formData.setManager(record.get("manager"));
+            formData.setRole(record.get("role"));
+            String joiningDate = record.get("joiningdate");
+            if (joiningDate != null && !joiningDate.isEmpty()) {
+                try {
+                    formData.setJoiningDate(LocalDate.parse(joiningDate));
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid joiningDate on row " + (i + 1) + ": " + joiningDate);
+                }
+            }
+            rows.add(formData);
+        }
+        return rows;
+    }
+
+    /**
+     * Generate, store and zip offer letters for all rows
+     * Each row gets its own PDF entry; a batch-report.csv entry lists the outcome per row.
+     *
+     * @param rows The form data rows
+     * @param outputStream The stream the ZIP is written to
+     * @param requestedBy The username of the admin generating the batch, for the audit trail
+     * @throws IOException If the ZIP cannot be written
+     * @throws IllegalArgumentException If the batch is empty or too large
+     */
+    public void generateZip(List<FormData> rows, OutputStream outputStream, String requestedBy) throws IOException {
+        validateBatchSize(rows);
+
+        // Rows for the same employee share one account lookup/creation
+        Map<String, CompletableFuture<User>> accounts = new ConcurrentHashMap<>();
+        int window = pdfRenderExecutor.getMaxPoolSize() * 2;
+        Deque<CompletableFuture<RowResult>> inFlight = new ArrayDeque<>();
+        StringBuilder report = new StringBuilder("row,email,fileName,status,message\n");
+
+        try (ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+            for (int i = 0; i < rows.size(); i++) {
+                int rowNumber = i + 1;
+                FormData formData = rows.get(i);
+                inFlight.add(CompletableFuture.supplyAsync(() -> processRow(rowNumber, formData, accounts, requestedBy), pdfRenderExecutor));
+
+                if (inFlight.size() >= window) {
+                    writeResult(zip, report, inFlight.poll().join());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeResult(zip, report, inFlight.poll().join());
+            }
+
+            zip.putNextEntry(new ZipEntry(REPORT_ENTRY));
+            zip.write(report.toString().getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+
+    private void validateBatchSize(List<FormData> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("Batch contains no rows");
+        }
+        if (rows.size() > maxRows) {
+            throw new IllegalArgumentException("Batch contains " + rows.size() + " rows, the maximum is " + maxRows);
+        }
+    }
+
+    private RowResult processRow(int rowNumber, FormData formData, Map<String, CompletableFuture<User>> accounts,
+                                 String requestedBy) {
+        String email = formData.getEmail();
+        try {
+            validateRow(formData);
+            String fileName = formData.getFirstName() + formData.getLastName() + ".pdf";
+
+            User employeeUser = resolveAccount(email, accounts);
+            OfferLetterGenerationService.StoredOfferLetter stored = generationService.renderAndStore(formData, employeeUser, fileName);
+            auditService.logOfferLetterEvent(requestedBy, AuditEventType.OFFER_LETTER_GENERATE, stored.getOfferLetter().getId(),
+                    email, "Batch row " + rowNumber);
+
+            return RowResult.success(rowNumber, email, fileName, stored.getContent());
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.warn("Batch row {} ({}) failed: {}", rowNumber, email, cause.getMessage());
+            return RowResult.failure(rowNumber, email, cause.getMessage());
+        }
+    }
+
+    private User resolveAccount(String email, Map<String, CompletableFuture<User>> accounts) {
+        // Rows that differ only in case or surrounding whitespace belong to the same employee
+        String username = email.trim().toLowerCase(Locale.ROOT);
+        CompletableFuture<User> created = new CompletableFuture<>();
+        CompletableFuture<User> existing = accounts.putIfAbsent(username, created);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            created.complete(generationService.provisionEmployee(username).getUser());
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+        }
+        return created.join();
+    }
+
+    private void validateRow(FormData formData) {
+        if (isBlank(formData.getEmail())) {
+            throw new IllegalArgumentException("email is required");
+        }
+        if (isBlank(formData.getFirstName()) || isBlank(formData.getLastName())) {
+            throw new IllegalArgumentException("firstName and lastName are required");
+        }
+        if (formData.getJoiningDate() == null) {
+            throw new IllegalArgumentException("joiningDate is required");
+        }
+    }
+
+    private void writeResult(ZipOutputStream zip, StringBuilder report, RowResult result) throws IOException {
+        String entryName = null;
+        if (result.pdfBytes != null) {
+            // Prefix with the row number so candidates with the same name don't collide
+            entryName = String.format("%04d_%s", result.rowNumber, result.fileName);
+            zip.putNextEntry(new ZipEntry(entryName));
+            zip.write(result.pdfBytes);
+            zip.closeEntry();
+        }
+        report.append(result.rowNumber).append(',')
+                .append(csvValue(result.email)).append(',')
+                .append(csvValue(entryName)).append(',')
+                .append(result.pdfBytes != null ? "OK" : "FAILED").append(',')
+                .append(csvValue(result.message)).append('\n');
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static final class RowResult {
+        private final int rowNumber;
+        private final String email;
+        private final String fileName;
+        private final byte[] pdfBytes;
+        private final String message;
+
+        private RowResult(int rowNumber, String email, String fileName, byte[] pdfBytes, String message) {
+            this.rowNumber = rowNumber;
+            this.email = email;
+            this.fileName = fileName;
+            this.pdfBytes = pdfBytes;
+            this.message = message;
+        }
+
+        static RowResult success(int rowNumber, String email, String fileName, byte[] pdfBytes) {
+            return new RowResult(rowNumber, email, fileName, pdfBytes, null);
+        }
+
+        static RowResult failure(int rowNumber, String email, String message) {
+            return new RowResult(rowNumber, email, null, null, message);
+        }
+    }
+}
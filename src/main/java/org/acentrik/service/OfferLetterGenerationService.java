@@ -0,0 +1,145 @@
+package org.acentrik.service;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Service with the shared steps of offer letter generation:
+ * rendering and storing the PDF and provisioning the employee account it belongs to
+ */
+@Service
+public class OfferLetterGenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferLetterGenerationService.class);
+
+    @Autowired
+    private OfferLetterTemplateService offerLetterTemplateService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordValidator passwordValidator;
+
+    @Autowired
+    private OfferLetterService offerLetterService;
+
+    @Autowired
+    private OfferLetterRenderCache renderCache;
+
+    @Autowired
+    private OfferLetterMetrics metrics;
+
+    /**
+     * Render an offer letter into memory
+     *
+     * @param formData The form data for the letter
+     * @return The PDF as a byte array
+     * @throws IOException If the PDF cannot be rendered
+     */
+    public byte[] render(FormData formData) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        offerLetterTemplateService.render(formData, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Render an offer letter and store it for a user, unless an identical letter is already stored
+     * The render is fingerprinted from the form data and today's date; if the user already has a
+     * letter with that fingerprint, its stored PDF is returned instead of rendering a new one.
+     * Recently rendered PDFs are served from the {@link OfferLetterRenderCache}.
+     *
+     * @param formData The form data for the letter
+     * @param user The user the letter belongs to
+     * @param fileName The file name to store a new letter under
+     * @return The stored offer letter and its PDF
+     * @throws IOException If the PDF cannot be rendered
+     */
+    public StoredOfferLetter renderAndStore(FormData formData, User user, String fileName) throws IOException {
+        // Fix the date first, so a render just after midnight still matches its fingerprint
+        LocalDate letterDate = LocalDate.now();
+        String fingerprint = offerLetterTemplateService.fingerprint(formData, letterDate);
+
+        Optional<OfferLetter> existing = offerLetterService.findByRenderFingerprint(user, fingerprint);
+        if (existing.isPresent()) {
+            try {
+                byte[] content = renderCache.get(fingerprint, () -> offerLetterService.readContent(existing.get()));
+                metrics.recordGenerated(true);
+                return new StoredOfferLetter(existing.get(), content, true);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Stored offer letter {} can't be read, rendering it again: {}", existing.get().getId(), e.getMessage());
+            }
+        }
+
+        // A recent render may still be cached, e.g. if its letter was removed in the meantime
+        byte[] content = renderCache.get(fingerprint, () -> {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            offerLetterTemplateService.render(formData, letterDate, baos);
+            return baos.toByteArray();
+        });
+        OfferLetter offerLetter = offerLetterService.saveOfferLetter(user, fileName, content, fingerprint);
+        metrics.recordGenerated(false);
+        return new StoredOfferLetter(offerLetter, content, false);
+    }
+
+    /**
+     * Get the user account for an employee, creating it with a random password if it doesn't exist
+     *
+     * @param email The employee email, used as username
+     * @return The employee account, with the generated password if the account was created
+     */
+    public EmployeeAccount provisionEmployee(String email) {
+        Timer.Sample sample = Timer.start();
+        Optional<User> existingUser = userService.getUserByUsername(email);
+        if (existingUser.isPresent()) {
+            sample.stop(metrics.provisionTimer(false));
+            return new EmployeeAccount(existingUser.get(), null);
+        }
+
+        // Create new user with USER role and a random password
+        String generatedPassword = passwordValidator.generateRandomPassword();
+        User user = userService.registerNewUser(email, generatedPassword);
+        sample.stop(metrics.provisionTimer(true));
+        return new EmployeeAccount(user, generatedPassword);
+    }
+
+    /**
+     * An offer letter returned by {@link #renderAndStore(FormData, User, String)}
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StoredOfferLetter {
+        private final OfferLetter offerLetter;
+        private final byte[] content;
+        // true if an identical letter was already stored and nothing was rendered
+        private final boolean reused;
+    }
+
+    /**
+     * An employee account resolved during offer letter generation
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class EmployeeAccount {
+        private final User user;
+        // Only set when the account was created by this request
+        private final String generatedPassword;
+
+        public boolean isNewAccount() {
+            return generatedPassword != null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.acentrik.service;
+
+import lombok.Getter;
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetterJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An asynchronous offer letter generation job
+ * The state is written by one generation worker and read by request threads, so every
+ * mutable field is volatile.
+ */
+@Getter
+public class OfferLetterJob {
+
+    private final String id;
+    // Username of the user who submitted the job
+    private final String owner;
+    private final String fileName;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    // Released once the job has run, so finished jobs don't keep the form data alive
+    private volatile FormData formData;
+    private volatile OfferLetterJobStatus status = OfferLetterJobStatus.QUEUED;
+    // Current step, e.g. "rendering" or "storing"
+    private volatile String stage = "queued";
+    private volatile int progress;
+    private volatile Long offerLetterId;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    OfferLetterJob(String id, String owner, FormData formData) {
+        this.id = id;
+        this.owner = owner;
+        this.formData = formData;
+        this.fileName = formData.getFirstName() + formData.getLastName() + ".pdf";
+    }
+
+    void start() {
+        status = OfferLetterJobStatus.RUNNING;
+    }
+
+    void advance(String stage, int progress) {
+        this.stage = stage;
+        this.progress = progress;
+    }
+
+    void complete(Long offerLetterId) {
+        this.offerLetterId = offerLetterId;
+        finish(OfferLetterJobStatus.COMPLETED, "completed", null);
+    }
+
+    void fail(String error) {
+        finish(OfferLetterJobStatus.FAILED, stage, error);
+    }
+
+    private void finish(OfferLetterJobStatus status, String stage, String error) {
+        this.stage = stage;
+        this.error = error;
+        this.formData = null;
+        this.finishedAt = LocalDateTime.now();
+        this.progress = status == OfferLetterJobStatus.COMPLETED ? 100 : progress;
+        // Written last, so readers that see a finished status also see the result
+        this.status = status;
+    }
+
+    /**
+     * Snapshot of the job state for status responses and events
+     *
+     * @return The job state as an ordered map
+     */
+    public Map<String, Object> toStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", id);
+        status.put("status", this.status);
+        status.put("stage", stage);
+        status.put("progress", progress);
+        status.put("fileName", fileName);
+        status.put("offerLetterId", offerLetterId);
+        status.put("error", error);
+        status.put("createdAt", createdAt);
+        status.put("finishedAt", finishedAt);
+        return status;
+    }
+}
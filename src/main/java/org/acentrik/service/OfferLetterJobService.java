@@ -0,0 +1,189 @@
+package org.acentrik.service;
+
+import org.acentrik.model.AuditEventType;
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Service for asynchronous offer letter generation
+ *
+ * Jobs run on the dedicated, bounded offer letter job executor instead of request threads.
+ * When its queue is full new jobs are rejected, so bursts of generation requests get
+ * back-pressure instead of starving the interactive pages. Job state is kept in memory;
+ * the generated PDF itself is stored as a regular offer letter. Finished jobs are forgotten
+ * after the retention period.
+ */
+@Service
+public class OfferLetterJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferLetterJobService.class);
+
+    private final OfferLetterGenerationService generationService;
+    private final AuditService auditService;
+    private final ThreadPoolTaskExecutor offerLetterJobExecutor;
+
+    private final Map<String, OfferLetterJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${app.pdf.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${app.pdf.jobs.sse-timeout-ms:300000}")
+    private long sseTimeoutMillis;
+
+    @Autowired
+    public OfferLetterJobService(
+            OfferLetterGenerationService generationService,
+            AuditService auditService,
+            @Qualifier("offerLetterJobExecutor") ThreadPoolTaskExecutor offerLetterJobExecutor) {
+        this.generationService = generationService;
+        this.auditService = auditService;
+        this.offerLetterJobExecutor = offerLetterJobExecutor;
+    }
+
+    /**
+     * Submit an offer letter for asynchronous generation
+     *
+     * @param formData The form data for the letter
+     * @param owner The username of the submitting user
+     * @return The queued job
+     * @throws IllegalArgumentException If the form data has no employee email
+     * @throws TaskRejectedException If the job queue is full
+     */
+    public OfferLetterJob submit(FormData formData, String owner) {
+        if (formData.getEmail() == null || formData.getEmail().isBlank()) {
+            throw new IllegalArgumentException("email is required");
+        }
+        OfferLetterJob job = new OfferLetterJob(UUID.randomUUID().toString(), owner, formData);
+        jobs.put(job.getId(), job);
+        try {
+            offerLetterJobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        logger.info("Queued offer letter job {} for {}", job.getId(), formData.getEmail());
+        return job;
+    }
+
+    /**
+     * Get a job by its ID
+     *
+     * @param id The job ID
+     * @return Optional containing the job if it exists and hasn't expired
+     */
+    public Optional<OfferLetterJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Subscribe to the status events of a job
+     * The current status is sent immediately; the emitter completes once the job has finished.
+     *
+     * @param job The job to subscribe to
+     * @return The emitter that receives "status" events
+     */
+    public SseEmitter subscribe(OfferLetterJob job) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(job.getId(), id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        // Sent after registering, so a job finishing in between is still reported
+        send(emitter, job);
+        return emitter;
+    }
+
+    /**
+     * Get the number of jobs waiting for a worker
+     *
+     * @return The number of queued jobs
+     */
+    public int getQueuedCount() {
+        return offerLetterJobExecutor.getQueueSize();
+    }
+
+    /**
+     * Forget finished jobs older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${app.pdf.jobs.eviction-interval-ms:60000}")
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt().isBefore(cutoff));
+        // Drop subscriber lists left behind by clients that subscribed just as their job finished
+        subscribers.keySet().retainAll(jobs.keySet());
+    }
+
+    private void run(OfferLetterJob job) {
+        FormData formData = job.getFormData();
+        job.start();
+        try {
+            update(job, "provisioning account", 10);
+            OfferLetterGenerationService.EmployeeAccount account = generationService.provisionEmployee(formData.getEmail());
+
+            update(job, "rendering", 40);
+            OfferLetter offerLetter = generationService.renderAndStore(formData, account.getUser(), job.getFileName()).getOfferLetter();
+
+            job.complete(offerLetter.getId());
+            auditService.logOfferLetterEvent(job.getOwner(), AuditEventType.OFFER_LETTER_GENERATE, offerLetter.getId(),
+                    formData.getEmail(), "Job " + job.getId());
+            logger.info("Offer letter job {} completed, stored offer letter {}", job.getId(), offerLetter.getId());
+        } catch (Exception e) {
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            logger.warn("Offer letter job {} failed during {}: {}", job.getId(), job.getStage(), e.getMessage());
+        }
+        publish(job);
+    }
+
+    private void update(OfferLetterJob job, String stage, int progress) {
+        job.advance(stage, progress);
+        publish(job);
+    }
+
+    private void publish(OfferLetterJob job) {
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters != null) {
+            for (SseEmitter emitter : emitters) {
+                send(emitter, job);
+            }
+        }
+        if (job.getStatus().isFinished()) {
+            subscribers.remove(job.getId());
+        }
+    }
+
+    private void send(SseEmitter emitter, OfferLetterJob job) {
+        // Read before the snapshot is built, so a finished status always comes with the final result
+        boolean finished = job.getStatus().isFinished();
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job.toStatus()));
+            if (finished) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the emitter's callbacks remove it
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.acentrik.service;
+
+import com.itextpdf.kernel.exceptions.PdfException;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfOutline;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.navigation.PdfExplicitDestination;
+import com.itextpdf.kernel.utils.PdfMerger;
+import org.acentrik.model.AuditEventType;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.OfferLetterFilter;
+import org.acentrik.model.OfferLetterPage;
+import org.acentrik.model.OfferLetterSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Service for exporting stored offer letters as one merged PDF
+ *
+ * Letters are selected in chunks and copied into the merged document one at a time.
+ * The pages of a letter are written to the output as soon as it has been copied, so
+ * memory holds one source document and one chunk of metadata regardless of how many
+ * letters are exported. Each letter gets a bookmark pointing at its first page.
+ */
+@Service
+public class OfferLetterMergeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferLetterMergeService.class);
+
+    private static final DateTimeFormatter BOOKMARK_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final OfferLetterService offerLetterService;
+    private final AuditService auditService;
+
+    @Value("${app.offer-letters.merge.max-ids:5000}")
+    private int maxIds;
+
+    @Value("${app.offer-letters.merge.chunk-size:100}")
+    private int chunkSize;
+
+    @Autowired
+    public OfferLetterMergeService(OfferLetterService offerLetterService, AuditService auditService) {
+        this.offerLetterService = offerLetterService;
+        this.auditService = auditService;
+    }
+
+    /**
+     * Select offer letters by ID
+     *
+     * @param ids The IDs, in the order the letters should appear; duplicates are ignored
+     * @return The selection, which skips IDs that don't exist
+     * @throws IllegalArgumentException If no or too many IDs are given
+     */
+    public Selection selectByIds(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("No offer letters selected");
+        }
+        if (distinct.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " offer letters can be merged at once");
+        }
+        return new Selection(new IdChunks(distinct));
+    }
+
+    /**
+     * Select the offer letters matching a filter, in the filter's sort order
+     *
+     * @param filter The filter, already scoped to what the current user may see
+     * @return The selection
+     */
+    public Selection selectByFilter(OfferLetterFilter filter) {
+        return new Selection(new FilterChunks(filter));
+    }
+
+    /**
+     * Write the selected offer letters to a single PDF
+     * Letters whose content cannot be read are logged and left out.
+     *
+     * @param selection The offer letters to merge
+     * @param outputStream The stream to write the merged PDF to
+     * @param requestedBy The username of the admin exporting the letters, recorded in the audit log
+     * @return The number of letters in the merged PDF
+     * @throws IOException If the merged PDF cannot be written
+     */
+    public int merge(Selection selection, OutputStream outputStream, String requestedBy) throws IOException {
+        PdfDocument merged = new PdfDocument(new PdfWriter(outputStream));
+        // Outlines and tags of the source documents are not needed, each letter gets one bookmark
+        PdfMerger merger = new PdfMerger(merged, false, false);
+        PdfOutline bookmarks = merged.getOutlines(false);
+
+        int count = 0;
+        while (selection.hasNext()) {
+            for (OfferLetter offerLetter : selection.next()) {
+                if (append(merger, merged, bookmarks, offerLetter)) {
+                    auditService.logOfferLetterEvent(requestedBy, AuditEventType.OFFER_LETTER_DOWNLOAD, offerLetter.getId(),
+                            offerLetter.getUser().getUsername(), "Merged export");
+                    count++;
+                }
+            }
+        }
+
+        if (merged.getNumberOfPages() == 0) {
+            // A PDF needs at least one page
+            merged.addNewPage();
+        }
+        merged.close();
+        logger.info("Merged {} offer letters for {}", count, requestedBy);
+        return count;
+    }
+
+    private boolean append(PdfMerger merger, PdfDocument merged, PdfOutline bookmarks, OfferLetter offerLetter) {
+        try (PdfDocument source = open(offerLetter)) {
+            int firstPage = merged.getNumberOfPages() + 1;
+            merger.merge(source, 1, source.getNumberOfPages());
+            bookmarks.addOutline(bookmarkTitle(offerLetter))
+                    .addDestination(PdfExplicitDestination.createFit(merged.getPage(firstPage)));
+
+            // Write the copied pages now so they don't stay in memory until the document is closed
+            for (int page = firstPage; page <= merged.getNumberOfPages(); page++) {
+                merged.getPage(page).flush();
+            }
+            return true;
+        } catch (IOException | PdfException e) {
+            logger.warn("Leaving offer letter {} out of the merged PDF: {}", offerLetter.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private PdfDocument open(OfferLetter offerLetter) throws IOException {
+        // Local files are read in place, other blob stores are streamed into memory one letter at a time
+        Optional<Path> path = offerLetterService.localContentPath(offerLetter);
+        if (path.isPresent()) {
+            return new PdfDocument(new PdfReader(path.get().toFile()));
+        }
+        try (InputStream in = offerLetterService.openContent(offerLetter)) {
+            return new PdfDocument(new PdfReader(in));
+        }
+    }
+
+    private static String bookmarkTitle(OfferLetter offerLetter) {
+        return offerLetter.getUser().getUsername() + " - " + offerLetter.getFileName()
+                + " (" + offerLetter.getCreatedAt().format(BOOKMARK_DATE) + ")";
+    }
+
+    // Loads the entities for the given IDs, in the order of the IDs
+    private List<OfferLetter> load(List<Long> ids) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        List<OfferLetter> offerLetters = new ArrayList<>(offerLetterService.getOfferLettersWithUser(ids));
+        offerLetters.sort(Comparator.comparing(offerLetter -> positions.get(offerLetter.getId())));
+        return offerLetters;
+    }
+
+    @FunctionalInterface
+    private interface ChunkSource {
+        // The next chunk, which may be empty, or null when there are no more
+        List<OfferLetter> next();
+    }
+
+    /**
+     * Offer letters selected for merging, loaded lazily one chunk at a time
+     */
+    public static class Selection {
+        private final ChunkSource source;
+        private List<OfferLetter> pending;
+        private boolean exhausted;
+
+        private Selection(ChunkSource source) {
+            this.source = source;
+        }
+
+        /**
+         * @return true if there is at least one more offer letter, loading the next chunk if needed
+         */
+        public boolean hasNext() {
+            while (pending == null && !exhausted) {
+                List<OfferLetter> chunk = source.next();
+                if (chunk == null) {
+                    exhausted = true;
+                } else if (!chunk.isEmpty()) {
+                    pending = chunk;
+                }
+            }
+            return pending != null;
+        }
+
+        /**
+         * @return The next non-empty chunk of offer letters
+         */
+        public List<OfferLetter> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<OfferLetter> chunk = pending;
+            pending = null;
+            return chunk;
+        }
+    }
+
+    private class IdChunks implements ChunkSource {
+        private final List<Long> ids;
+        private int position;
+
+        IdChunks(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public List<OfferLetter> next() {
+            if (position >= ids.size()) {
+                return null;
+            }
+            List<Long> chunk = ids.subList(position, Math.min(position + chunkSize, ids.size()));
+            position += chunk.size();
+            return load(chunk);
+        }
+    }
+
+    private class FilterChunks implements ChunkSource {
+        private final OfferLetterFilter filter;
+        private String cursor;
+        private boolean done;
+
+        FilterChunks(OfferLetterFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public List<OfferLetter> next() {
+            if (done) {
+                return null;
+            }
+            OfferLetterPage page = offerLetterService.listOfferLetters(filter, cursor, chunkSize);
+            cursor = page.getNextCursor();
+            done = cursor == null;
+
+            List<Long> ids = new ArrayList<>(page.getItems().size());
+            for (OfferLetterSummary summary : page.getItems()) {
+                ids.add(summary.getId());
+            }
+            return ids.isEmpty() ? List.of() : load(ids);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.acentrik.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters for the stages of offer letter generation and delivery
+ *
+ * Each stage has its own timer, so a slow request can be attributed to rendering, account
+ * provisioning (which includes password hashing), storing, sending or streaming the PDF.
+ * All meters share the offerletter prefix; histograms and percentiles for them are enabled
+ * with the management.metrics.distribution properties.
+ */
+@Component
+public class OfferLetterMetrics {
+
+    private final Timer renderTimer;
+    private final Timer provisionCreatedTimer;
+    private final Timer provisionExistingTimer;
+    private final Timer persistTimer;
+    private final Timer emailSendTimer;
+    private final Timer streamTimer;
+    private final Counter pdfBytesProduced;
+    private final DistributionSummary pdfSize;
+    private final Counter bytesStreamed;
+    private final Counter emailsSent;
+    private final Counter emailsFailed;
+    private final Counter lettersRendered;
+    private final Counter lettersReused;
+
+    @Autowired
+    public OfferLetterMetrics(MeterRegistry registry) {
+        this.renderTimer = Timer.builder("offerletter.render")
+                .description("Time to lay out and write an offer letter PDF")
+                .register(registry);
+        this.provisionCreatedTimer = Timer.builder("offerletter.provision")
+                .description("Time to look up or create the employee account")
+                .tag("outcome", "created")
+                .register(registry);
+        this.provisionExistingTimer = Timer.builder("offerletter.provision")
+                .description("Time to look up or create the employee account")
+                .tag("outcome", "existing")
+                .register(registry);
+        this.persistTimer = Timer.builder("offerletter.persist")
+                .description("Time to store an offer letter in the blob store and database")
+                .register(registry);
+        this.emailSendTimer = Timer.builder("offerletter.email.send")
+                .description("Time to hand a batch of offer letter emails to the SMTP server")
+                .register(registry);
+        this.streamTimer = Timer.builder("offerletter.stream")
+                .description("Time to write an offer letter PDF to the HTTP response")
+                .register(registry);
+        this.pdfBytesProduced = Counter.builder("offerletter.pdf.produced")
+                .description("Bytes of offer letter PDFs rendered")
+                .baseUnit("bytes")
+                .register(registry);
+        this.pdfSize = DistributionSummary.builder("offerletter.pdf.size")
+                .description("Size of rendered offer letter PDFs")
+                .baseUnit("bytes")
+                .register(registry);
+        this.bytesStreamed = Counter.builder("offerletter.streamed")
+                .description("Bytes of offer letter PDFs sent to clients")
+                .baseUnit("bytes")
+                .register(registry);
+        this.emailsSent = Counter.builder("offerletter.email.messages")
+                .description("Offer letter emails handed to the SMTP server")
+                .tag("outcome", "sent")
+                .register(registry);
+        this.emailsFailed = Counter.builder("offerletter.email.messages")
+                .description("Offer letter emails handed to the SMTP server")
+                .tag("outcome", "failed")
+                .register(registry);
+        this.lettersRendered = Counter.builder("offerletter.generated")
+                .description("Offer letter requests, by whether the letter was rendered or an identical stored letter was reused")
+                .tag("outcome", "rendered")
+                .register(registry);
+        this.lettersReused = Counter.builder("offerletter.generated")
+                .description("Offer letter requests, by whether the letter was rendered or an identical stored letter was reused")
+                .tag("outcome", "reused")
+                .register(registry);
+        Gauge.builder("offerletter.dedup.ratio", this, OfferLetterMetrics::dedupRatio)
+                .description("Share of offer letter requests served by an identical stored letter since startup")
+                .register(registry);
+    }
+
+    public Timer renderTimer() {
+        return renderTimer;
+    }
+
+    /**
+     * @param created true if the account was created, false if an existing one was used
+     * @return The provisioning timer for the outcome
+     */
+    public Timer provisionTimer(boolean created) {
+        return created ? provisionCreatedTimer : provisionExistingTimer;
+    }
+
+    public Timer persistTimer() {
+        return persistTimer;
+    }
+
+    public Timer emailSendTimer() {
+        return emailSendTimer;
+    }
+
+    public Timer streamTimer() {
+        return streamTimer;
+    }
+
+    /**
+     * Record a rendered PDF
+     *
+     * @param bytes The size of the PDF
+     */
+    public void recordPdfProduced(long bytes) {
+        pdfBytesProduced.increment(bytes);
+        pdfSize.record(bytes);
+    }
+
+    /**
+     * Record PDF bytes sent to a client
+     *
+     * @param bytes The number of bytes
+     */
+    public void recordStreamed(long bytes) {
+        bytesStreamed.increment(bytes);
+    }
+
+    /**
+     * Record an offer letter request
+     *
+     * @param reused true if an identical stored letter was returned, false if the letter was rendered
+     */
+    public void recordGenerated(boolean reused) {
+        (reused ? lettersReused : lettersRendered).increment();
+    }
+
+    private double dedupRatio() {
+        double reused = lettersReused.count();
+        double total = reused + lettersRendered.count();
+        return total == 0 ? 0 : reused / total;
+    }
+
+    /**
+     * Record the outcome of sending emails
+     *
+     * @param sent The number of emails sent
+     * @param failed The number of emails that could not be sent
+     */
+    public void recordEmails(int sent, int failed) {
+        emailsSent.increment(sent);
+        emailsFailed.increment(failed);
+    }
+}
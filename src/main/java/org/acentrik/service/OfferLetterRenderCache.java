@@ -0,0 +1,137 @@
+package org.acentrik.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+/**
+ * Short-lived cache of recently rendered offer letter PDFs keyed by render fingerprint
+ *
+ * Admins often preview, tweak and download the same letter within minutes, so the PDF of each
+ * render is kept for a short time and an identical request is served without rendering or
+ * reading the blob store. The cache is bounded by the bytes of the cached PDFs. With off-heap
+ * enabled the PDFs are copied into direct buffers, so cached bytes don't add to the heap the
+ * collector scans; each hit then copies the PDF back into a heap array. Direct buffers count
+ * against -XX:MaxDirectMemorySize. Hit and miss counts are published as cache.* metrics with
+ * cache=offer-letter-pdfs, and the cached bytes as offerletter.render.cache.size.
+ */
+@Component
+public class OfferLetterRenderCache {
+
+    private final Cache<String, CachedPdf> cache;
+    private final boolean offHeap;
+
+    @Autowired
+    public OfferLetterRenderCache(
+            @Value("${app.offer-letters.render-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${app.offer-letters.render-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.offer-letters.render-cache.off-heap:false}") boolean offHeap,
+            MeterRegistry meterRegistry) {
+        this.offHeap = offHeap;
+        this.cache = WeightedCaches.builder(maxBytes, (String key, CachedPdf pdf) -> pdf.size())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        WeightedCaches.monitor(meterRegistry, cache, "offer-letter-pdfs", "offerletter.render.cache.size")
+                .description("Bytes of cached offer letter PDFs")
+                .tag("storage", offHeap ? "direct" : "heap")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get a cached PDF, loading and caching it on a miss
+     * The loader runs on the calling thread outside the cache's locks, so concurrent misses for
+     * the same fingerprint may both load it.
+     *
+     * @param fingerprint The render fingerprint
+     * @param loader Renders the PDF or reads it from storage
+     * @return The PDF content; callers must not modify it
+     * @throws IOException If the loader fails
+     */
+    public byte[] get(String fingerprint, Loader loader) throws IOException {
+        CachedPdf cached = cache.getIfPresent(fingerprint);
+        if (cached != null) {
+            return cached.bytes();
+        }
+        byte[] content = loader.load();
+        put(fingerprint, content);
+        return content;
+    }
+
+    /**
+     * Cache a PDF
+     *
+     * @param fingerprint The render fingerprint
+     * @param content The PDF content
+     */
+    public void put(String fingerprint, byte[] content) {
+        cache.put(fingerprint, offHeap ? new DirectPdf(content) : new HeapPdf(content));
+    }
+
+    /**
+     * Remove all PDFs from the cache
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Loads a PDF that isn't cached
+     */
+    @FunctionalInterface
+    public interface Loader {
+        byte[] load() throws IOException;
+    }
+
+    private interface CachedPdf {
+        byte[] bytes();
+
+        int size();
+    }
+
+    private static final class HeapPdf implements CachedPdf {
+        private final byte[] content;
+
+        HeapPdf(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public byte[] bytes() {
+            return content;
+        }
+
+        @Override
+        public int size() {
+            return Math.max(content.length, 1);
+        }
+    }
+
+    private static final class DirectPdf implements CachedPdf {
+        private final ByteBuffer content;
+
+        DirectPdf(byte[] content) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+            buffer.put(content).flip();
+            this.content = buffer.asReadOnlyBuffer();
+        }
+
+        @Override
+        public byte[] bytes() {
+            byte[] copy = new byte[content.remaining()];
+            // Absolute get, so concurrent readers don't share a position
+            content.get(0, copy);
+            return copy;
+        }
+
+        @Override
+        public int size() {
+            return Math.max(content.capacity(), 1);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.acentrik.service;
+
+import org.acentrik.model.OfferLetter;
+import org.acentrik.repository.OfferLetterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves old offer letters out of the offer_letters table into archive segments
+ *
+ * An offer letter is archived when its user has more than keep-latest-per-user newer letters, or
+ * when it is older than archive-after-months; a user's latest letter always stays in the table.
+ * Archived PDFs are packed into compressed segment files by {@link OfferLetterArchiveStore} and
+ * their rows move to offer_letter_archive with the same ID, so view and download links keep
+ * working through {@link OfferLetterService}. Blobs no longer referenced by offer_letters are
+ * deleted from the blob store.
+ */
+@Service
+public class OfferLetterRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferLetterRetentionService.class);
+
+    private static final String DELETE_OFFER_LETTER = "DELETE FROM offer_letters WHERE id = ?";
+    private static final String INSERT_ARCHIVED = "INSERT INTO offer_letter_archive (id, user_id, file_name, content_hash, "
+            + "content_length, created_at, archived_at, segment, segment_offset) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final OfferLetterService offerLetterService;
+    private final OfferLetterRepository offerLetterRepository;
+    private final OfferLetterArchiveStore archiveStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.offer-letters.retention.enabled:false}")
+    private boolean enabled;
+
+    // Newest letters per user kept in offer_letters; 0 disables the rule
+    @Value("${app.offer-letters.retention.keep-latest-per-user:3}")
+    private int keepLatestPerUser = 3;
+
+    // Letters older than this are archived; 0 disables the rule
+    @Value("${app.offer-letters.retention.archive-after-months:12}")
+    private int archiveAfterMonths = 12;
+
+    @Value("${app.offer-letters.retention.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.offer-letters.retention.segment-max-bytes:67108864}")
+    private long segmentMaxBytes = 64L * 1024 * 1024;
+
+    @Autowired
+    public OfferLetterRetentionService(OfferLetterService offerLetterService,
+                                       OfferLetterRepository offerLetterRepository,
+                                       OfferLetterArchiveStore archiveStore,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager) {
+        this.offerLetterService = offerLetterService;
+        this.offerLetterRepository = offerLetterRepository;
+        this.archiveStore = archiveStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run the compaction on the configured schedule, if retention is enabled
+     */
+    @Scheduled(cron = "${app.offer-letters.retention.cron:0 30 2 * * *}")
+    public void scheduledCompaction() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            logger.error("Offer letter compaction failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archive every offer letter the retention policies select
+     * Letters are archived batch-size at a time, one segment per batch; a segment is closed early
+     * when it reaches segment-max-bytes. Letters whose PDF can't be read are left in place.
+     *
+     * @return The number of offer letters archived
+     */
+    public synchronized int compact() {
+        if (keepLatestPerUser <= 0 && archiveAfterMonths <= 0) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(archiveAfterMonths);
+
+        int archived = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = selectCandidates(afterId, cutoff);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Batch batch = archiveBatch(ids);
+            archived += batch.archived;
+            afterId = batch.lastId;
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} offer letters", archived);
+        }
+        return archived;
+    }
+
+    private List<Long> selectCandidates(long afterId, LocalDateTime cutoff) {
+        // Ranks each user's letters newest first; rank 1 is the latest letter and is never archived
+        StringBuilder sql = new StringBuilder("SELECT id FROM (SELECT id, created_at, ROW_NUMBER() OVER "
+                + "(PARTITION BY user_id ORDER BY created_at DESC, id DESC) AS rn FROM offer_letters) ranked "
+                + "WHERE id > ? AND rn > 1 AND (");
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        if (keepLatestPerUser > 0) {
+            sql.append("rn > ?");
+            args.add(keepLatestPerUser);
+        }
+        if (archiveAfterMonths > 0) {
+            sql.append(keepLatestPerUser > 0 ? " OR " : "").append("created_at < ?");
+            args.add(Timestamp.valueOf(cutoff));
+        }
+        sql.append(") ORDER BY id LIMIT ?");
+        args.add(batchSize);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    private Batch archiveBatch(List<Long> ids) {
+        List<OfferLetter> offerLetters = new ArrayList<>(offerLetterRepository.findAllWithUserByIdIn(ids));
+        offerLetters.sort(Comparator.comparing(OfferLetter::getId));
+
+        Batch batch = new Batch(ids.get(ids.size() - 1));
+        List<ArchiveEntry> entries = new ArrayList<>();
+        String segment;
+        try (OfferLetterArchiveStore.SegmentWriter writer = archiveStore.newSegment()) {
+            for (OfferLetter offerLetter : offerLetters) {
+                if (!entries.isEmpty() && writer.size() >= segmentMaxBytes) {
+                    // The rest goes into the next segment; a segment always takes at least one letter
+                    batch.lastId = entries.get(entries.size() - 1).offerLetter.getId();
+                    break;
+                }
+                byte[] content;
+                try {
+                    content = offerLetterService.readContent(offerLetter);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Not archiving offer letter {}, its content can't be read: {}", offerLetter.getId(), e.getMessage());
+                    continue;
+                }
+                entries.add(new ArchiveEntry(offerLetter, writer.append(offerLetter.getContentHash(), content)));
+            }
+            if (entries.isEmpty()) {
+                return batch;
+            }
+            segment = writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive segment", e);
+        }
+
+        List<ArchiveEntry> moved;
+        try {
+            moved = transactionTemplate.execute(status -> moveRows(entries, segment));
+        } catch (RuntimeException e) {
+            deleteSegment(segment);
+            throw e;
+        }
+        if (moved.isEmpty()) {
+            // Every letter was removed while the segment was written
+            deleteSegment(segment);
+            return batch;
+        }
+        batch.archived = moved.size();
+
+        Set<String> contentRefs = new LinkedHashSet<>();
+        for (ArchiveEntry entry : moved) {
+            contentRefs.add(entry.offerLetter.getContentRef());
+        }
+        for (String contentRef : contentRefs) {
+            if (contentRef != null) {
+                offerLetterService.deleteContentIfUnreferenced(contentRef);
+            }
+        }
+        return batch;
+    }
+
+    private List<ArchiveEntry> moveRows(List<ArchiveEntry> entries, String segment) {
+        // Delete first, so letters removed concurrently aren't resurrected in the archive
+        int[][] deleted = jdbcTemplate.batchUpdate(DELETE_OFFER_LETTER, entries, entries.size(),
+                (ps, entry) -> ps.setLong(1, entry.offerLetter.getId()));
+        List<ArchiveEntry> moved = new ArrayList<>();
+        int index = 0;
+        for (int[] counts : deleted) {
+            for (int count : counts) {
+                if (count != 0) {
+                    moved.add(entries.get(index));
+                }
+                index++;
+            }
+        }
+
+        Timestamp archivedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVED, moved, moved.size(), (ps, entry) -> {
+            OfferLetter offerLetter = entry.offerLetter;
+            ps.setLong(1, offerLetter.getId());
+            ps.setLong(2, offerLetter.getUser().getId());
+            ps.setString(3, offerLetter.getFileName());
+            ps.setString(4, offerLetter.getContentHash());
+            ps.setObject(5, offerLetter.getContentLength());
+            ps.setTimestamp(6, Timestamp.valueOf(offerLetter.getCreatedAt()));
+            ps.setTimestamp(7, archivedAt);
+            ps.setString(8, segment);
+            ps.setLong(9, entry.offset);
+        });
+        return moved;
+    }
+
+    private void deleteSegment(String segment) {
+        try {
+            archiveStore.delete(segment);
+        } catch (IOException e) {
+            logger.warn("Failed to delete unused archive segment {}: {}", segment, e.getMessage());
+        }
+    }
+
+    private static class ArchiveEntry {
+        private final OfferLetter offerLetter;
+        private final long offset;
+
+        private ArchiveEntry(OfferLetter offerLetter, long offset) {
+            this.offerLetter = offerLetter;
+            this.offset = offset;
+        }
+    }
+
+    private static class Batch {
+        // The highest ID considered; the next batch starts after it
+        private long lastId;
+        private int archived;
+
+        private Batch(long lastId) {
+            this.lastId = lastId;
+        }
+    }
+}
@@ -1,23 +1,78 @@
 package org.acentrik.service;
 
+import io.micrometer.core.instrument.Timer;
+import org.acentrik.model.ArchivedOfferLetter;
 import org.acentrik.model.OfferLetter;
+import org.acentrik.model.OfferLetterFilter;
+import org.acentrik.model.OfferLetterPage;
+import org.acentrik.model.OfferLetterSummary;
 import org.acentrik.model.User;
+import org.acentrik.model.UserOfferLetterSummary;
+import org.acentrik.repository.ArchivedOfferLetterRepository;
 import org.acentrik.repository.OfferLetterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class OfferLetterService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OfferLetterService.class);
+
+    // Storing a blob and inserting its row, and counting its rows and deleting it, run under the
+    // lock of the blob's reference, so a shared blob isn't deleted between being stored and referenced.
+    // Archive segments are counted and deleted under the lock of their name. The locks only cover this instance.
+    private static final int CONTENT_LOCK_STRIPES = 64;
+    private final Lock[] contentLocks = newLocks(CONTENT_LOCK_STRIPES);
+
     @Autowired
     private OfferLetterRepository offerLetterRepository;
 
+    @Autowired
+    private ArchivedOfferLetterRepository archivedOfferLetterRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OfferLetterArchiveStore archiveStore;
+
+    @Autowired
+    private OfferLetterMetrics metrics;
+
+    @Value("${app.offer-letters.page.max-size:100}")
+    private int maxPageSize;
+
     /**
      * Save an offer letter for a user
+     * The PDF is written to the blob store; identical PDFs share one stored copy.
      * 
      * @param user The user to save the offer letter for
      * @param fileName The name of the file
@@ -25,12 +80,127 @@ public class OfferLetterService {
      * @return The saved OfferLetter entity
      */
     public OfferLetter saveOfferLetter(User user, String fileName, byte[] content) {
-        OfferLetter offerLetter = new OfferLetter(user, fileName, content, LocalDateTime.now());
-        return offerLetterRepository.save(offerLetter);
+        return saveOfferLetter(user, fileName, content, null);
+    }
+
+    /**
+     * Save an offer letter for a user together with the fingerprint of the inputs it was rendered from
+     *
+     * @param user The user to save the offer letter for
+     * @param fileName The name of the file
+     * @param content The content of the offer letter as a byte array
+     * @param renderFingerprint The render fingerprint, or null if unknown
+     * @return The saved OfferLetter entity
+     */
+    public OfferLetter saveOfferLetter(User user, String fileName, byte[] content, String renderFingerprint) {
+        Timer.Sample sample = Timer.start();
+        try {
+            BlobStore.StoredBlob blob;
+            try {
+                blob = blobStore.store(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to store offer letter content", e);
+            }
+            Lock lock = contentLock(blob.getRef());
+            lock.lock();
+            try {
+                // The last letter sharing the blob may have been removed since it was stored
+                if (!blobStore.exists(blob.getRef())) {
+                    blob = blobStore.store(content);
+                }
+                OfferLetter offerLetter = new OfferLetter(user, fileName, blob.getRef(), blob.getHash(), blob.getSize(), LocalDateTime.now());
+                offerLetter.setRenderFingerprint(renderFingerprint);
+                return offerLetterRepository.save(offerLetter);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to store offer letter content", e);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            sample.stop(metrics.persistTimer());
+        }
+    }
+
+    /**
+     * Open the PDF content of an offer letter
+     *
+     * @param offerLetter The offer letter
+     * @return A stream of the PDF content, which the caller must close
+     * @throws IOException If the content cannot be read from the blob store
+     */
+    public InputStream openContent(OfferLetter offerLetter) throws IOException {
+        return Channels.newInputStream(openChannel(offerLetter));
+    }
+
+    /**
+     * Open the PDF content of an offer letter as a seekable channel
+     * The blob store's channel is returned as is, so file-backed content can be
+     * transferred with {@link java.nio.channels.FileChannel#transferTo}. Archived
+     * content is inflated from its archive segment, and letters not yet migrated to
+     * the blob store are read from the legacy content column.
+     *
+     * @param offerLetter The offer letter
+     * @return A channel positioned at the start of the PDF content, which the caller must close
+     * @throws IOException If the content cannot be read from the blob store or archive
+     */
+    public SeekableByteChannel openChannel(OfferLetter offerLetter) throws IOException {
+        if (offerLetter.getContentRef() == null) {
+            return new OfferLetterArchiveStore.ByteArrayChannel(readLegacyContent(offerLetter));
+        }
+        if (OfferLetterArchiveStore.isArchiveRef(offerLetter.getContentRef())) {
+            return archiveStore.openChannel(offerLetter.getContentRef());
+        }
+        return blobStore.openChannel(offerLetter.getContentRef());
+    }
+
+    /**
+     * Get the local file holding the PDF content of an offer letter
+     *
+     * @param offerLetter The offer letter
+     * @return The path of the PDF file, or empty if the content isn't stored as a local file
+     */
+    public Optional<Path> localContentPath(OfferLetter offerLetter) {
+        if (offerLetter.getContentRef() == null || OfferLetterArchiveStore.isArchiveRef(offerLetter.getContentRef())) {
+            return Optional.empty();
+        }
+        return blobStore.localPath(offerLetter.getContentRef());
+    }
+
+    /**
+     * Read the content of an offer letter that hasn't been moved to the blob store yet
+     * Only letters whose migration failed are left in the legacy column, see OfferLetterContentMigration.
+     */
+    private byte[] readLegacyContent(OfferLetter offerLetter) throws IOException {
+        byte[] content;
+        try {
+            content = jdbcTemplate.query("SELECT content FROM offer_letters WHERE id = ?",
+                    rs -> rs.next() ? rs.getBytes(1) : null, offerLetter.getId());
+        } catch (DataAccessException e) {
+            // The legacy column is gone once every letter has been migrated
+            throw new NoSuchFileException("Offer letter " + offerLetter.getId() + " has no stored content");
+        }
+        if (content == null) {
+            throw new NoSuchFileException("Offer letter " + offerLetter.getId() + " has no stored content");
+        }
+        return content;
+    }
+
+    /**
+     * Read the PDF content of an offer letter into memory
+     *
+     * @param offerLetter The offer letter
+     * @return The PDF content
+     * @throws IOException If the content cannot be read from the blob store
+     */
+    public byte[] readContent(OfferLetter offerLetter) throws IOException {
+        try (InputStream in = openContent(offerLetter)) {
+            return in.readAllBytes();
+        }
     }
 
     /**
      * Get all offer letters for a user
+     * Archived offer letters are not included.
      * 
      * @param user The user to get offer letters for
      * @return List of offer letters for the user
@@ -49,27 +219,222 @@ public class OfferLetterService {
         return offerLetterRepository.findFirstByUserOrderByCreatedAtDesc(user);
     }
 
+    /**
+     * Find the latest offer letter of a user rendered from the same inputs
+     *
+     * @param user The user the offer letter belongs to
+     * @param renderFingerprint The render fingerprint
+     * @return Optional containing the matching offer letter if found
+     */
+    public Optional<OfferLetter> findByRenderFingerprint(User user, String renderFingerprint) {
+        return offerLetterRepository.findFirstByUserAndRenderFingerprintOrderByCreatedAtDesc(user, renderFingerprint);
+    }
+
+    /**
+     * List offer letter metadata one page at a time
+     * Pages are read with keyset pagination, so every page costs one query regardless of its
+     * position, and no PDF content is loaded.
+     *
+     * @param filter The filters and sort order
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param size The requested page size, capped at the configured maximum
+     * @return The page and the cursor for the next page
+     * @throws IllegalArgumentException If the cursor is invalid
+     */
+    public OfferLetterPage listOfferLetters(OfferLetterFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+
+        Object afterValue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            try {
+                afterId = Long.parseLong(parts[0]);
+                afterValue = filter.getSort() == OfferLetterFilter.SortField.FILE_NAME ? parts[1] : LocalDateTime.parse(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to find out whether there is a next page
+        List<OfferLetterSummary> rows = offerLetterRepository.findSummaries(filter, afterValue, afterId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new OfferLetterPage(rows, null);
+        }
+
+        List<OfferLetterSummary> items = new ArrayList<>(rows.subList(0, pageSize));
+        OfferLetterSummary last = items.get(items.size() - 1);
+        Object lastValue = filter.getSort() == OfferLetterFilter.SortField.FILE_NAME ? last.getFileName() : last.getCreatedAt();
+        return new OfferLetterPage(items, encodeCursor(last.getId(), lastValue));
+    }
+
+    private static String encodeCursor(Long id, Object value) {
+        String raw = id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        // The ID comes first, the sort value may itself contain the separator
+        String[] parts = raw.split("\\|", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+
+    /**
+     * Get all users together with the metadata of their latest offer letter
+     * The PDF content isn't loaded, and the result comes from a single query.
+     *
+     * @return One summary per user, ordered by user ID
+     */
+    public List<UserOfferLetterSummary> getUsersWithLatestOfferLetter() {
+        return offerLetterRepository.findUsersWithLatestOfferLetter();
+    }
+
     /**
      * Remove an offer letter by its ID
+     * The stored PDF is deleted once the removal commits, unless another offer letter shares it. Archived
+     * offer letters can be removed too; their segment is deleted with the last of its letters.
      * 
      * @param id The ID of the offer letter to remove
      * @return true if the offer letter was found and removed, false otherwise
      */
+    @Transactional
     public boolean removeOfferLetterById(Long id) {
-        if (offerLetterRepository.existsById(id)) {
-            offerLetterRepository.deleteById(id);
-            return true;
+        Optional<OfferLetter> offerLetterOpt = offerLetterRepository.findById(id);
+        if (offerLetterOpt.isEmpty()) {
+            return removeArchivedOfferLetterById(id);
+        }
+
+        String contentRef = offerLetterOpt.get().getContentRef();
+        offerLetterRepository.deleteById(id);
+
+        if (contentRef != null) {
+            // Counted once the removal is committed, so concurrent removals of letters sharing the blob see each other
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteContentIfUnreferenced(contentRef);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Delete a stored PDF if no offer letter references it any more
+     * Must be called after the transaction that removed the references has committed.
+     *
+     * @param contentRef The blob reference
+     * @return true if the blob was deleted
+     */
+    public boolean deleteContentIfUnreferenced(String contentRef) {
+        Lock lock = contentLock(contentRef);
+        lock.lock();
+        try {
+            if (offerLetterRepository.countByContentRef(contentRef) > 0) {
+                return false;
+            }
+            return blobStore.delete(contentRef);
+        } catch (IOException e) {
+            // An orphaned blob only costs disk space, don't fail the removal
+            logger.warn("Failed to delete stored content {}: {}", contentRef, e.getMessage());
+            return false;
+        } finally {
+            lock.unlock();
         }
-        return false;
+    }
+
+    private Lock contentLock(String contentRef) {
+        return contentLocks[Math.floorMod(contentRef.hashCode(), CONTENT_LOCK_STRIPES)];
+    }
+
+    private static Lock[] newLocks(int count) {
+        Lock[] locks = new Lock[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private boolean removeArchivedOfferLetterById(Long id) {
+        Optional<ArchivedOfferLetter> archivedOpt = archivedOfferLetterRepository.findById(id);
+        if (archivedOpt.isEmpty()) {
+            return false;
+        }
+
+        String segment = archivedOpt.get().getSegment();
+        archivedOfferLetterRepository.deleteById(id);
+
+        // Like blobs, counted once the removal is committed, so a rollback keeps the segment and
+        // concurrent removals from the same segment see each other
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteSegmentIfUnreferenced(segment);
+            }
+        });
+        return true;
+    }
+
+    private void deleteSegmentIfUnreferenced(String segment) {
+        Lock lock = contentLock(segment);
+        lock.lock();
+        try {
+            if (archivedOfferLetterRepository.countBySegment(segment) == 0) {
+                archiveStore.delete(segment);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete archive segment {}: {}", segment, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get offer letters by ID, loading their users in the same query
+     *
+     * Archived offer letters are included.
+     *
+     * @param ids The IDs of the offer letters
+     * @return The offer letters that exist, in no particular order
+     */
+    public List<OfferLetter> getOfferLettersWithUser(Collection<Long> ids) {
+        List<OfferLetter> offerLetters = new ArrayList<>(offerLetterRepository.findAllWithUserByIdIn(ids));
+        if (offerLetters.size() < ids.size()) {
+            for (ArchivedOfferLetter archived : archivedOfferLetterRepository.findAllWithUserByIdIn(ids)) {
+                offerLetters.add(fromArchive(archived));
+            }
+        }
+        return offerLetters;
     }
 
     /**
      * Get an offer letter by its ID
+     * Archived offer letters are found as well; their content is read from the archive.
      * 
      * @param id The ID of the offer letter to retrieve
      * @return Optional containing the offer letter if found
      */
     public Optional<OfferLetter> getOfferLetterById(Long id) {
-        return offerLetterRepository.findById(id);
+        Optional<OfferLetter> offerLetter = offerLetterRepository.findById(id);
+        if (offerLetter.isPresent()) {
+            return offerLetter;
+        }
+        return archivedOfferLetterRepository.findById(id).map(OfferLetterService::fromArchive);
+    }
+
+    // Detached view of an archived letter, with its content reference pointing into the segment
+    private static OfferLetter fromArchive(ArchivedOfferLetter archived) {
+        return new OfferLetter(archived.getId(), archived.getUser(), archived.getFileName(),
+                OfferLetterArchiveStore.ref(archived.getSegment(), archived.getSegmentOffset()),
+                archived.getContentHash(), archived.getContentLength(), archived.getCreatedAt(), null);
     }
 }
@@ -0,0 +1,349 @@
+package org.acentrik.service;
+
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.CompressionConstants;
+import com.itextpdf.kernel.pdf.PdfAConformanceLevel;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfOutputIntent;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.pdfa.PdfADocument;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetterOutputProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.color.ColorSpace;
+import java.awt.color.ICC_Profile;
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Service that renders offer letters from a prepared template.
+ *
+ * The font programs and the decoded logo come from the shared {@link PdfResourceRegistry},
+ * so each render only binds the {@link FormData} fields. iText layout elements and
+ * {@link PdfFont} instances belong to a single document, so they are still created per
+ * render from the shared, immutable resources.
+ *
+ * The PDF is written with the {@link OfferLetterOutputProfile} of the form data, or the
+ * configured default. Letters use the standard Times font unless they are PDF/A, which
+ * requires embedded fonts, or a name or role has characters Times doesn't cover; those embed
+ * the configured font (DejaVu Serif by default). PDF/A letters declare the sRGB profile
+ * shipped with the JDK as output intent.
+ */
+@Service
+public class OfferLetterTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferLetterTemplateService.class);
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM-dd-yyyy");
+
+    // Bump when the letter's text or layout changes, so stored letters no longer match new renders
+    private static final int TEMPLATE_VERSION = 1;
+
+    private static final String DEFAULT_LOGO = "classpath:static/img1.png";
+    private static final String DEFAULT_EMBEDDED_FONT = "classpath:fonts/DejaVuSerif.ttf";
+    private static final float LOGO_WIDTH = 60;
+
+    private static final String COMPANY_NAME = "Acentrik Technology Solutions LLC";
+    private static final String COMPANY_TAGLINE = "Passion, Innovation & Trust";
+    private static final String TITLE = "Offer of Internship";
+    private static final String COMPANY_ADDRESS = "Acentrik Technology Solutions, LLC, 4425 W Airport fwy, Suite 117, Irving, TX-75062";
+    private static final String RESPONSIBILITIES_HEADING = "Your Job responsibilities include:";
+    private static final String RESPONSIBILITIES = """
+            \t• Conduct business process analysis to understand existing workflow and systems, document current processes and systems.
+            \t• Create requirements for new processes, develop use cases and manage requirement changes.
+            \t• Have strong technical acumen with the ability to translate information and research into non-technical language as necessary to effectively communicate across teams.
+            \t• Gather, summarize, and verify information used to populate reports and deliverables.
+            \t• Facilitate requirement reviews with stakeholders, perform QA testing and conduct UAT with business/process teams.
+            \t• Maintain documentation related to CMDB processes, procedures, and configurations.""";
+    private static final String COMPANY_AGREEMENTS_HEADING = "Company Agreements: ";
+    private static final String COMPANY_AGREEMENTS = "For the purpose of Federal Immigration Law, you will be required to provide the evidence of your identity and eligibility for internship in the United States. Such documentation must be provided to us within three business days of your date of hire with Acentrik Technology Solutions, LLC, or your internship may be terminated.";
+    private static final String AT_WILL_HEADING = "At-Will Employment: ";
+    private static final String AT_WILL = "If you accept this offer, you understand and agree that your employment with the Company is for no specified period and constitutes \"at-will\" employment. As a result, you will be free to resign at any time or for any reason or no reason. The company will similarly have the right to end its employment relationship with you at any time, with or without notice and with or without cause. You understand and agree that any representation to the contrary is unauthorized and not valid unless obtained, written, and signed by the company manager.";
+    private static final String CONTACT = "If you have any questions or need further information, please feel free to contact me at 972-799-6164 or kishore.medikonda@acentriktech.com. We look forward to seeing you and we offer you a very warm welcome.";
+    private static final String CLOSING = "Sincerely,";
+    private static final String SIGNATURE = "Kishore Medikonda\nHR Director\nAcentrik Technology Solutions LLC";
+
+    @Autowired
+    private OfferLetterMetrics metrics;
+
+    @Autowired
+    private PdfResourceRegistry resources;
+
+    @Value("${app.offer-letters.output-profile:STANDARD}")
+    private OfferLetterOutputProfile defaultProfile = OfferLetterOutputProfile.STANDARD;
+
+    @Value("${app.offer-letters.logo:" + DEFAULT_LOGO + "}")
+    private String logo = DEFAULT_LOGO;
+
+    @Value("${app.offer-letters.embedded-font:" + DEFAULT_EMBEDDED_FONT + "}")
+    private String embeddedFont = DEFAULT_EMBEDDED_FONT;
+
+    private byte[] outputIntentProfile;
+    private boolean logoAvailable;
+
+    /**
+     * Load the output intent profile and check that the logo can be decoded
+     */
+    @PostConstruct
+    public void init() {
+        outputIntentProfile = ICC_Profile.getInstance(ColorSpace.CS_sRGB).getData();
+
+        try {
+            resources.getImage(logo);
+            logoAvailable = true;
+        } catch (Exception e) {
+            // Fall back to a text-only header if the logo cannot be loaded
+            logger.warn("Failed to load logo image, offer letters will use a text header: {}", e.getMessage());
+            logoAvailable = false;
+        }
+    }
+
+    /**
+     * Render an offer letter for the given form data, dated today
+     *
+     * @param formData The form data to bind into the template
+     * @param outputStream The stream the PDF is written to
+     * @throws IOException If the PDF cannot be written
+     */
+    public void render(FormData formData, OutputStream outputStream) throws IOException {
+        render(formData, LocalDate.now(), outputStream);
+    }
+
+    /**
+     * Render an offer letter for the given form data
+     *
+     * @param formData The form data to bind into the template
+     * @param letterDate The date printed on the letter
+     * @param outputStream The stream the PDF is written to
+     * @throws IOException If the PDF cannot be written
+     */
+    public void render(FormData formData, LocalDate letterDate, OutputStream outputStream) throws IOException {
+        OfferLetterOutputProfile profile = formData.getOutputProfile() != null ? formData.getOutputProfile() : defaultProfile;
+        CountingOutputStream counted = new CountingOutputStream(outputStream);
+        Timer.Sample sample = Timer.start();
+        try {
+            renderDocument(formData, letterDate, profile, counted);
+        } finally {
+            sample.stop(metrics.renderTimer());
+        }
+        metrics.recordPdfProduced(counted.count);
+    }
+
+    /**
+     * Fingerprint the inputs of a render
+     * Two renders with the same fingerprint produce the same letter: it covers the trimmed form
+     * fields (the email case-insensitively, as it is the username), the letter date, the resolved
+     * output profile, the template version and the configured logo and font.
+     *
+     * @param formData The form data to bind into the template
+     * @param letterDate The date printed on the letter
+     * @return The hex encoded SHA-256 of the inputs
+     */
+    public String fingerprint(FormData formData, LocalDate letterDate) {
+        OfferLetterOutputProfile profile = formData.getOutputProfile() != null ? formData.getOutputProfile() : defaultProfile;
+        String email = formData.getEmail() != null ? formData.getEmail().trim().toLowerCase(Locale.ROOT) : null;
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (Object field : new Object[] {TEMPLATE_VERSION, logo, embeddedFont, profile, letterDate,
+                formData.getFirstName(), formData.getLastName(), email, formData.getDomain(), formData.getManager(),
+                formData.getRole(), formData.getJoiningDate()}) {
+            // Length-prefixed, so field boundaries can't shift between values
+            if (field == null) {
+                digest.update((byte) '~');
+            } else {
+                String value = field.toString().trim();
+                digest.update((value.length() + ":" + value + ";").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void renderDocument(FormData formData, LocalDate letterDate, OfferLetterOutputProfile profile, OutputStream outputStream) throws IOException {
+        PdfDocument pdf = createDocument(profile, outputStream);
+        Document document = new Document(pdf);
+
+        document.setFont(createFont(formData, profile));
+        document.setFontSize(12);
+
+        document.add(buildHeader(logoAvailable ? resources.getImage(logo) : null));
+
+        String formattedToday = letterDate.format(DATE_FORMATTER);
+        document.add(new Paragraph(formattedToday)
+                .setTextAlignment(TextAlignment.LEFT));
+
+        String formattedJoiningDate = formData.getJoiningDate().format(DATE_FORMATTER);
+        document.add(new Paragraph(TITLE)
+                .setBold()
+                .setFontSize(12)
+                .setTextAlignment(TextAlignment.LEFT));
+
+        document.add(new Paragraph("Dear " + formData.getFirstName() + " " + formData.getLastName() + ","));
+
+        document.add(new Paragraph("It's my pleasure to offer you a " + formData.getRole() + "  role at Acentrik. Your internship will be from " + formattedJoiningDate + ".")
+                .setTextAlignment(TextAlignment.JUSTIFIED));
+
+        document.add(new Paragraph("On behalf of " + COMPANY_ADDRESS + ", we are pleased to welcome you. You will report to " + formData.getManager() + " (Reporting Manager) during your internship period with us.")
+                .setTextAlignment(TextAlignment.JUSTIFIED));
+
+        document.add(new Paragraph(RESPONSIBILITIES_HEADING)
+                .setBold());
+
+        document.add(new Paragraph(RESPONSIBILITIES)
+                .setTextAlignment(TextAlignment.JUSTIFIED));
+
+        document.add(new Paragraph()
+                .add(new Text(COMPANY_AGREEMENTS_HEADING).setBold())
+                .add(COMPANY_AGREEMENTS)
+                .setTextAlignment(TextAlignment.JUSTIFIED));
+
+        document.add(new Paragraph()
+                .add(new Text(AT_WILL_HEADING).setBold())
+                .add(AT_WILL)
+                .setTextAlignment(TextAlignment.JUSTIFIED));
+
+        document.add(new Paragraph(CONTACT)
+                .setTextAlignment(TextAlignment.JUSTIFIED));
+
+        document.add(new Paragraph(CLOSING));
+
+        document.add(new Paragraph(SIGNATURE));
+
+        document.close();
+    }
+
+    /**
+     * Create the PDF document for an output profile
+     *
+     * @param profile The output profile
+     * @param outputStream The stream the PDF is written to
+     * @return The document
+     */
+    private PdfDocument createDocument(OfferLetterOutputProfile profile, OutputStream outputStream) {
+        switch (profile) {
+            case COMPRESSED:
+                return new PdfDocument(new PdfWriter(outputStream, new WriterProperties()
+                        .setFullCompressionMode(true)
+                        .setCompressionLevel(CompressionConstants.BEST_COMPRESSION)));
+            case PDF_A_2B:
+                PdfOutputIntent outputIntent = new PdfOutputIntent("Custom", "", "http://www.color.org",
+                        "sRGB IEC61966-2.1", new ByteArrayInputStream(outputIntentProfile));
+                PdfADocument pdf = new PdfADocument(new PdfWriter(outputStream), PdfAConformanceLevel.PDF_A_2B, outputIntent);
+                pdf.getDocumentInfo().setTitle(TITLE);
+                return pdf;
+            default:
+                return new PdfDocument(new PdfWriter(outputStream));
+        }
+    }
+
+    /**
+     * Create the document font, embedding a font if the standard one can't be used
+     *
+     * @param formData The form data of the letter
+     * @param profile The output profile
+     * @return The font
+     * @throws IOException If the font cannot be loaded
+     */
+    private PdfFont createFont(FormData formData, OfferLetterOutputProfile profile) throws IOException {
+        if (profile != OfferLetterOutputProfile.PDF_A_2B) {
+            PdfFont standardFont = PdfFontFactory.createFont(resources.getFont(StandardFonts.TIMES_ROMAN));
+            if (canDisplay(standardFont, formData)) {
+                return standardFont;
+            }
+        }
+        // Identity-H so that any glyph of the font can be used, only the used glyphs are embedded
+        return PdfFontFactory.createFont(resources.getFont(embeddedFont), PdfEncodings.IDENTITY_H,
+                PdfFontFactory.EmbeddingStrategy.FORCE_EMBEDDED);
+    }
+
+    private static boolean canDisplay(PdfFont font, FormData formData) {
+        for (String value : new String[]{formData.getFirstName(), formData.getLastName(), formData.getRole(), formData.getManager()}) {
+            if (value != null && !value.codePoints().allMatch(c -> Character.isWhitespace(c) || font.containsGlyph(c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Build the header paragraph with the logo (if available), company name and tagline
+     *
+     * @param logoData The decoded logo, or null for a text-only header
+     * @return The header paragraph
+     */
+    private Paragraph buildHeader(ImageData logoData) {
+        Paragraph header = new Paragraph();
+
+        if (logoData != null) {
+            Image logo = new Image(logoData);
+            logo.setWidth(LOGO_WIDTH);
+            header.add(logo);
+            header.add("\n");
+        }
+
+        header.add(new Text(COMPANY_NAME)
+                .setBold()
+                .setFontSize(16));
+        header.add("\n");
+
+        header.add(new Text(COMPANY_TAGLINE)
+                .setBold()
+                .setFontSize(12));
+
+        header.setTextAlignment(TextAlignment.CENTER);
+        return header;
+    }
+
+    /**
+     * Counts the bytes of the rendered PDF on their way to the caller's stream
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
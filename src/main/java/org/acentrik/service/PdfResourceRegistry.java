@@ -0,0 +1,146 @@
+package org.acentrik.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Application-wide cache of the font programs and decoded images used in generated PDFs
+ *
+ * Resources are loaded on first use and shared by all documents and threads. iText only
+ * allows {@link FontProgram} and {@link ImageData} to be shared: the PdfFont and image
+ * XObject built from them, including embedded font subsets, still belong to one document.
+ * Both caches are bounded by the size of the loaded data and publish cache.* metrics
+ * (cache=pdf-fonts and cache=pdf-images) plus their weight as pdf.resources.size.
+ */
+@Component
+public class PdfResourceRegistry {
+
+    private final ResourceLoader resourceLoader;
+    private final Cache<String, Loaded<FontProgram>> fonts;
+    private final Cache<String, Loaded<ImageData>> images;
+
+    @Autowired
+    public PdfResourceRegistry(
+            ResourceLoader resourceLoader,
+            @Value("${app.pdf.resources.font-cache-max-bytes:33554432}") long maxFontBytes,
+            @Value("${app.pdf.resources.image-cache-max-bytes:33554432}") long maxImageBytes,
+            MeterRegistry meterRegistry) {
+        this.resourceLoader = resourceLoader;
+        this.fonts = buildCache(maxFontBytes);
+        this.images = buildCache(maxImageBytes);
+        register(meterRegistry, fonts, "pdf-fonts", "font");
+        register(meterRegistry, images, "pdf-images", "image");
+    }
+
+    /**
+     * Get a font program
+     *
+     * @param name A standard PDF font name (see {@link StandardFonts}) or the location of a font file,
+     *             e.g. classpath:fonts/DejaVuSerif.ttf
+     * @return The font program
+     * @throws IOException If the font cannot be loaded
+     */
+    public FontProgram getFont(String name) throws IOException {
+        return get(fonts, name, this::loadFont);
+    }
+
+    /**
+     * Get a decoded image
+     *
+     * @param location The location of the image file, e.g. classpath:static/img1.png
+     * @return The image data
+     * @throws IOException If the image cannot be loaded or decoded
+     */
+    public ImageData getImage(String location) throws IOException {
+        return get(images, location, this::loadImage);
+    }
+
+    private Loaded<FontProgram> loadFont(String name) throws IOException {
+        if (StandardFonts.isStandardFont(name)) {
+            // The metrics of the standard fonts are small and the font itself is never embedded
+            return new Loaded<>(FontProgramFactory.createFont(name, false), 1);
+        }
+        byte[] bytes = read(name);
+        // Not cached by iText as well, its font cache is unbounded
+        return new Loaded<>(FontProgramFactory.createFont(bytes, false), bytes.length);
+    }
+
+    private Loaded<ImageData> loadImage(String location) throws IOException {
+        ImageData image = ImageDataFactory.create(read(location));
+        return new Loaded<>(image, weigh(image));
+    }
+
+    private static int weigh(ImageData image) {
+        // Decoders keep the (re-encoded) pixel data, which is what the image costs in memory
+        int bytes = image.getData() != null ? image.getData().length : 0;
+        if (image.getImageMask() != null && image.getImageMask().getData() != null) {
+            bytes += image.getImageMask().getData().length;
+        }
+        return Math.max(bytes, 1);
+    }
+
+    private byte[] read(String location) throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            throw new FileNotFoundException("PDF resource not found: " + location);
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static <T> T get(Cache<String, Loaded<T>> cache, String key, Loader<T> loader) throws IOException {
+        try {
+            return cache.get(key, k -> {
+                try {
+                    return loader.load(k);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).value;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> Cache<String, Loaded<T>> buildCache(long maxBytes) {
+        return WeightedCaches.builder(maxBytes, (String key, Loaded<T> loaded) -> loaded.bytes).build();
+    }
+
+    private static void register(MeterRegistry meterRegistry, Cache<String, ?> cache, String name, String type) {
+        WeightedCaches.monitor(meterRegistry, cache, name, "pdf.resources.size")
+                .description("Bytes of cached PDF resources")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface Loader<T> {
+        Loaded<T> load(String key) throws IOException;
+    }
+
+    private static final class Loaded<T> {
+        private final T value;
+        private final int bytes;
+
+        Loaded(T value, int bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package org.acentrik.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of connected and authenticated SMTP transports
+ *
+ * Sending through {@link JavaMailSender#send(MimeMessage)} opens a new connection, STARTTLS
+ * session and AUTH exchange for every message. The pool keeps up to a configured number of
+ * transports open and reuses them, so bulk mail only pays the handshake once per connection.
+ * Idle transports are evicted, and transports that were idle for a while are checked with
+ * an SMTP NOOP before they are reused.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger openCount = new AtomicInteger();
+
+    private final boolean enabled;
+    private final long borrowTimeoutMillis;
+    private final long maxIdleMillis;
+    private final long validateAfterIdleMillis;
+    private final int maxMessagesPerConnection;
+
+    @Autowired
+    public SmtpTransportPool(
+            JavaMailSender mailSender,
+            @Value("${app.mail.pool.enabled:true}") boolean enabled,
+            @Value("${app.mail.pool.max-size:4}") int maxSize,
+            @Value("${app.mail.pool.borrow-timeout-ms:30000}") long borrowTimeoutMillis,
+            @Value("${app.mail.pool.max-idle-ms:60000}") long maxIdleMillis,
+            @Value("${app.mail.pool.validate-after-idle-ms:5000}") long validateAfterIdleMillis,
+            @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection) {
+        // The pool needs the session and server settings, which only JavaMailSenderImpl exposes
+        this.mailSender = mailSender instanceof JavaMailSenderImpl impl ? impl : null;
+        this.enabled = enabled && this.mailSender != null;
+        this.permits = new Semaphore(maxSize, true);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.maxIdleMillis = maxIdleMillis;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+    }
+
+    /**
+     * Check if pooled sending is available
+     *
+     * @return true if the pool is enabled and the mail sender exposes its session
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Send a batch of messages over a single pooled connection
+     * Recipient rejections only fail the affected message; connection errors close the
+     * transport and the remaining messages are sent over a fresh one.
+     *
+     * @param messages The messages to send
+     * @return One entry per message: null if it was sent, otherwise the exception that prevented it
+     */
+    public List<Exception> sendBatch(List<MimeMessage> messages) {
+        List<Exception> results = new ArrayList<>(messages.size());
+        PooledTransport transport = null;
+        MessagingException connectFailure = null;
+        try {
+            for (MimeMessage message : messages) {
+                if (connectFailure != null) {
+                    // No point waiting for another connection in the same batch
+                    results.add(connectFailure);
+                    continue;
+                }
+                try {
+                    if (transport == null) {
+                        transport = borrow();
+                    }
+                } catch (MessagingException e) {
+                    connectFailure = e;
+                    results.add(e);
+                    continue;
+                }
+                try {
+                    send(transport, message);
+                    results.add(null);
+                } catch (SendFailedException e) {
+                    // Recipient rejected, the connection is still usable
+                    results.add(e);
+                } catch (MessagingException e) {
+                    results.add(e);
+                    release(transport, true);
+                    transport = null;
+                }
+            }
+        } finally {
+            if (transport != null) {
+                release(transport, false);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Send a single message over a pooled connection
+     *
+     * @param message The message to send
+     * @throws MessagingException If the message could not be sent
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        Exception failure = sendBatch(List.of(message)).get(0);
+        if (failure instanceof MessagingException messagingException) {
+            throw messagingException;
+        }
+    }
+
+    /**
+     * Close transports that have been idle longer than the maximum idle time
+     */
+    @Scheduled(fixedDelayString = "${app.mail.pool.eviction-interval-ms:30000}")
+    public void evictIdleTransports() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledTransport> it = idle.iterator();
+        while (it.hasNext()) {
+            PooledTransport transport = it.next();
+            if (now - transport.lastUsed > maxIdleMillis && idle.removeFirstOccurrence(transport)) {
+                close(transport);
+            }
+        }
+    }
+
+    /**
+     * Get the number of open transports (idle and in use)
+     *
+     * @return The number of open transports
+     */
+    public int getOpenCount() {
+        return openCount.get();
+    }
+
+    /**
+     * Get the number of idle transports waiting to be reused
+     *
+     * @return The number of idle transports
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            close(transport);
+        }
+    }
+
+    private void send(PooledTransport pooled, MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        Address[] recipients = message.getAllRecipients();
+        if (recipients == null || recipients.length == 0) {
+            throw new SendFailedException("Message has no recipients");
+        }
+        pooled.transport.sendMessage(message, recipients);
+        pooled.messagesSent++;
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        if (!enabled) {
+            throw new IllegalStateException("SMTP transport pool is not enabled");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for a pooled SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for a pooled SMTP connection", e);
+        }
+
+        try {
+            PooledTransport transport;
+            // Most recently used first, so surplus connections age out and get evicted
+            while ((transport = idle.pollFirst()) != null) {
+                if (isHealthy(transport)) {
+                    return transport;
+                }
+                close(transport);
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport transport, boolean broken) {
+        try {
+            if (broken || transport.messagesSent >= maxMessagesPerConnection) {
+                close(transport);
+            } else {
+                transport.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(transport);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isHealthy(PooledTransport transport) {
+        if (System.currentTimeMillis() - transport.lastUsed > maxIdleMillis) {
+            return false;
+        }
+        if (System.currentTimeMillis() - transport.lastUsed < validateAfterIdleMillis) {
+            return true;
+        }
+        // For SMTP this sends a NOOP to check that the server still accepts commands
+        return transport.transport.isConnected();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        Session session = mailSender.getSession();
+        Transport transport = session.getTransport(mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        openCount.incrementAndGet();
+        logger.debug("Opened pooled SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport transport) {
+        openCount.decrementAndGet();
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing pooled SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private int messagesSent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.acentrik.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.acentrik.model.User;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of users keyed by username
+ *
+ * Most requests look up the current user several times (controllers, login events, security
+ * checks), so users are cached for a short time instead of being queried on every lookup.
+ * UserService invalidates an entry whenever it changes the user; the TTL bounds how stale an
+ * entry can get when the row is changed elsewhere, e.g. by another node.
+ * Unknown usernames are not cached. Hit and miss counts are published as cache.* metrics
+ * with cache=users.
+ *
+ * Users are loaded on the calling thread outside the cache's internal locks, and concurrent
+ * lookups of the same username wait for that one load. A query run inside a synchronous
+ * Caffeine computation would hold a monitor, which pins a virtual thread to its carrier.
+ */
+@Component
+public class UserCache {
+
+    private final AsyncCache<String, User> cache;
+
+    @Autowired
+    public UserCache(
+            @Value("${app.users.cache.max-size:10000}") long maxSize,
+            @Value("${app.users.cache.ttl-seconds:60}") long ttlSeconds,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "users"));
+    }
+
+    /**
+     * Get a user from the cache, loading and caching it on a miss
+     *
+     * @param username The username
+     * @param loader Loads the user from the database
+     * @return Optional containing the user if found
+     */
+    public Optional<User> get(String username, Function<String, Optional<User>> loader) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        CompletableFuture<User> load = new CompletableFuture<>();
+        CompletableFuture<User> user = cache.get(username, (key, executor) -> load);
+        if (user == load) {
+            // This lookup missed, load the user here; completing with null leaves unknown usernames uncached
+            try {
+                load.complete(loader.apply(username).orElse(null));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return Optional.ofNullable(user.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove a user from the cache
+     *
+     * @param username The username
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.synchronous().invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Another request may reload the old row before the change commits, so drop it again afterwards
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidate(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Remove all users from the cache
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
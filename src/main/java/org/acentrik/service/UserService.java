@@ -1,5 +1,6 @@
 package org.acentrik.service;
 
+import org.acentrik.model.AuditEventType;
 import org.acentrik.model.PasswordResetToken;
 import org.acentrik.model.User;
 import org.acentrik.repository.PasswordResetTokenRepository;
@@ -9,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,12 +23,15 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordResetTokenRepository tokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final PasswordValidator passwordValidator;
+    private final UserCache userCache;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final AuditService auditService;
 
     @Value("${app.admin.auto-recreate:true}")
     private boolean adminAutoRecreate;
@@ -39,16 +44,22 @@ public class UserService implements UserDetailsService {
             UserRepository userRepository, 
             PasswordResetTokenRepository tokenRepository,
             PasswordEncoder passwordEncoder, 
-            PasswordValidator passwordValidator) {
+            PasswordValidator passwordValidator,
+            UserCache userCache,
+            LoginAttemptTracker loginAttemptTracker,
+            AuditService auditService) {
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.passwordEncoder = passwordEncoder;
         this.passwordValidator = passwordValidator;
+        this.userCache = userCache;
+        this.loginAttemptTracker = loginAttemptTracker;
+        this.auditService = auditService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = getUserByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
         // Check if account is locked
@@ -108,8 +119,16 @@ public class UserService implements UserDetailsService {
         return userRepository.findAll();
     }
 
+    /**
+     * Get a user by username
+     * Users are served from the user cache; the returned entity is detached and shared, so
+     * callers must not modify it. Lazy collections such as the password history aren't loaded.
+     *
+     * @param username The username
+     * @return Optional containing the user if found
+     */
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userCache.get(username, userRepository::findByUsername);
     }
 
     /**
@@ -150,6 +169,10 @@ public class UserService implements UserDetailsService {
      */
     @Transactional
     public User updatePassword(User user, String newPassword) {
+        // The given user may come from the cache, so work on a managed copy with its password history
+        user = userRepository.findById(user.getId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
         // Validate password complexity
         List<String> validationErrors = passwordValidator.validatePasswordComplexity(newPassword);
         if (!validationErrors.isEmpty()) {
@@ -173,7 +196,43 @@ public class UserService implements UserDetailsService {
         user.setLastPasswordChange(LocalDateTime.now());
         user.setPasswordExpiryDate(LocalDateTime.now().plusDays(90)); // Passwords expire after 90 days
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getUsername());
+        auditService.logPasswordEvent(saved.getUsername(), AuditEventType.PASSWORD_CHANGE, null);
+        return saved;
+    }
+
+    /**
+     * Replace a user's password hash after a successful login
+     * Called by the authentication provider when the stored hash uses an outdated encoding or
+     * BCrypt cost. The password itself is unchanged, so history and expiry are left alone.
+     *
+     * @param userDetails The authenticated user
+     * @param newPassword The password re-hashed with the current encoding
+     * @return The user details with the new hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository.findByUsername(userDetails.getUsername()).ifPresent(user -> {
+            user.setPassword(newPassword);
+            userRepository.save(user);
+            userCache.invalidate(user.getUsername());
+            auditService.logPasswordEvent(user.getUsername(), AuditEventType.PASSWORD_REHASH, null);
+        });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
+
+    /**
+     * Get a user by ID
+     *
+     * @param userId The ID of the user
+     * @return Optional containing the user if found
+     */
+    public Optional<User> getUserById(Long userId) {
+        return userRepository.findById(userId);
     }
 
     /**
@@ -183,8 +242,11 @@ public class UserService implements UserDetailsService {
      * @return true if the user was deleted, false otherwise
      */
     public boolean deleteUserById(Long userId) {
-        if (userRepository.existsById(userId)) {
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isPresent()) {
             userRepository.deleteById(userId);
+            userCache.invalidate(userOpt.get().getUsername());
+            loginAttemptTracker.forget(userOpt.get().getUsername());
             return true;
         }
         return false;
@@ -224,16 +286,12 @@ public class UserService implements UserDetailsService {
 
     /**
      * Record a successful login for a user
-     * Resets failed login attempts and account lock
+     * Resets failed login attempts; the change is written behind by the login attempt tracker
      * 
      * @param username The username
      */
-    @Transactional
     public void recordSuccessfulLogin(String username) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.resetFailedLoginAttempts();
-            userRepository.save(user);
-        });
+        getUserByUsername(username).ifPresent(loginAttemptTracker::recordSuccess);
     }
 
     /**
@@ -243,16 +301,8 @@ public class UserService implements UserDetailsService {
      * @param username The username
      * @return true if the account is now locked, false otherwise
      */
-    @Transactional
     public boolean recordFailedLogin(String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.incrementFailedLoginAttempts();
-            userRepository.save(user);
-            return user.isAccountLocked();
-        }
-        return false;
+        return getUserByUsername(username).map(loginAttemptTracker::recordFailure).orElse(false);
     }
 
     /**
@@ -262,7 +312,7 @@ public class UserService implements UserDetailsService {
      * @return true if the password is expired, false otherwise
      */
     public boolean isPasswordExpired(String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
+        Optional<User> userOpt = getUserByUsername(username);
         return userOpt.map(User::isPasswordExpired).orElse(false);
     }
 
@@ -273,7 +323,7 @@ public class UserService implements UserDetailsService {
      * @return true if the account is locked, false otherwise
      */
     public boolean isAccountLocked(String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
+        Optional<User> userOpt = getUserByUsername(username);
         return userOpt.map(User::isAccountLocked).orElse(false);
     }
 
@@ -298,6 +348,7 @@ public class UserService implements UserDetailsService {
         // Create a new token
         PasswordResetToken token = new PasswordResetToken(user, tokenExpiryMinutes);
         tokenRepository.save(token);
+        auditService.logPasswordEvent(user.getUsername(), AuditEventType.PASSWORD_RESET_REQUEST, null);
 
         return token.getToken();
     }
@@ -348,15 +399,18 @@ public class UserService implements UserDetailsService {
                     String.join(", ", validationErrors));
         }
 
-        // Update the password
+        // Update the password; proving access to the email also unlocks the account
         user.addPasswordToHistory(user.getPassword());
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setLastPasswordChange(LocalDateTime.now());
         user.setPasswordExpiryDate(LocalDateTime.now().plusDays(90));
+        user.resetFailedLoginAttempts();
         userRepository.save(user);
+        loginAttemptTracker.reset(user.getUsername());
 
         // Delete the used token
         tokenRepository.deleteByUser(user);
+        auditService.logPasswordEvent(user.getUsername(), AuditEventType.PASSWORD_RESET, null);
 
         return true;
     }
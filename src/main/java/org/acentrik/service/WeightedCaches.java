@@ -0,0 +1,52 @@
+package org.acentrik.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caffeine caches bounded by the bytes of their values, with their metrics
+ */
+final class WeightedCaches {
+
+    private WeightedCaches() {
+    }
+
+    /**
+     * Start building a cache bounded by the total weight of its values
+     * Maintenance only drops references, so it runs on the caller and the size gauge is always current.
+     *
+     * @param maxWeight The maximum total weight, usually bytes
+     * @param weigher The weight of a value
+     * @return A builder recording stats, for further settings
+     */
+    static <K, V> Caffeine<K, V> builder(long maxWeight, Weigher<K, V> weigher) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher(weigher)
+                .recordStats()
+                .executor(Runnable::run);
+    }
+
+    /**
+     * Publish the cache.* metrics of a cache and start a gauge of its total weight in bytes
+     *
+     * @param meterRegistry The registry of the cache.* metrics
+     * @param cache The cache
+     * @param cacheName The cache tag of the cache.* metrics
+     * @param gaugeName The name of the weight gauge
+     * @return The gauge builder, which the caller describes, tags and registers
+     */
+    static <K, V, C extends Cache<K, V>> Gauge.Builder<C> monitor(MeterRegistry meterRegistry, C cache, String cacheName, String gaugeName) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+        return Gauge.builder(gaugeName, cache, WeightedCaches::weightedSize)
+                .baseUnit("bytes");
+    }
+
+    private static double weightedSize(Cache<?, ?> cache) {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+}
@@ -0,0 +1,110 @@
+package org.acentrik.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PooledPasswordEncoder} and the BCrypt cost calibration.
+ */
+public class PooledPasswordEncoderTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry registry;
+    private PooledPasswordEncoder encoder;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(5));
+
+        registry = new SimpleMeterRegistry();
+        encoder = new PooledPasswordEncoder(delegating, executor, 5000, registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testEncodesAndMatchesOnPool() {
+        String hash = encoder.encode("Secret123!");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("Secret123!", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertEquals(3, registry.get("security.password.hashing").timers().stream().mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    public void testMatchesAndUpgradesLegacyHashes() {
+        PasswordEncoder legacy = new BCryptPasswordEncoder(4);
+        String unprefixed = legacy.encode("Secret123!");
+
+        assertTrue(encoder.matches("Secret123!", unprefixed));
+        assertTrue(encoder.upgradeEncoding(unprefixed));
+        // Prefixed, but hashed with a lower cost than the current one
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + unprefixed));
+    }
+
+    @Test
+    public void testRejectsVerificationWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        // Occupy the only thread and the only queue slot
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await();
+        executor.execute(() -> awaitQuietly(release));
+
+        try {
+            assertThrows(AuthenticationServiceException.class, () -> encoder.matches("Secret123!", "{bcrypt}x"));
+            assertEquals(1.0, registry.get("security.password.hashing.rejected").tag("operation", "matches").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testCalibratedCostFitsTarget() {
+        // 10 ms at cost 10: 20 ms at 11, 40 ms at 12, 80 ms at 13
+        assertEquals(13, BCryptCostCalibrator.costFor(10, 100, 10, 16));
+        assertEquals(10, BCryptCostCalibrator.costFor(300, 100, 10, 16));
+        assertEquals(12, BCryptCostCalibrator.costFor(1, 10_000, 10, 12));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
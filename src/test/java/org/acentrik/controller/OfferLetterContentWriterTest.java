@@ -0,0 +1,234 @@
+package org.acentrik.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.acentrik.model.AuditEventType;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.service.AuditService;
+import org.acentrik.service.OfferLetterMetrics;
+import org.acentrik.service.OfferLetterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link OfferLetterContentWriter} streaming, Range and conditional request handling.
+ */
+public class OfferLetterContentWriterTest {
+
+    private static final byte[] CONTENT = "%PDF-1.7 0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String HASH = "ab".repeat(32);
+
+    @TempDir
+    Path tempDir;
+
+    private OfferLetterContentWriter writer;
+    private AuditService auditService;
+    private OfferLetter offerLetter;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = Files.write(tempDir.resolve("blob"), CONTENT);
+
+        OfferLetterService offerLetterService = mock(OfferLetterService.class);
+        when(offerLetterService.openChannel(any())).thenAnswer(invocation -> FileChannel.open(file, StandardOpenOption.READ));
+        when(offerLetterService.localContentPath(any())).thenReturn(Optional.of(file));
+
+        writer = new OfferLetterContentWriter();
+        Field field = OfferLetterContentWriter.class.getDeclaredField("offerLetterService");
+        field.setAccessible(true);
+        field.set(writer, offerLetterService);
+        auditService = mock(AuditService.class);
+        Field auditField = OfferLetterContentWriter.class.getDeclaredField("auditService");
+        auditField.setAccessible(true);
+        auditField.set(writer, auditService);
+        Field metricsField = OfferLetterContentWriter.class.getDeclaredField("metrics");
+        metricsField.setAccessible(true);
+        metricsField.set(writer, new OfferLetterMetrics(new SimpleMeterRegistry()));
+
+        offerLetter = new OfferLetter();
+        offerLetter.setFileName("JaneDoe.pdf");
+        offerLetter.setContentLength((long) CONTENT.length);
+        offerLetter.setContentHash(HASH);
+    }
+
+    @Test
+    public void testWritesWholeContent() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(offerLetter, true, false, new MockHttpServletRequest("GET", "/viewOfferLetter"), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT.length, response.getContentLength());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("inline; filename=\"JaneDoe.pdf\"", response.getHeader("Content-Disposition"));
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+        verify(auditService).logOfferLetterEvent(null, AuditEventType.OFFER_LETTER_VIEW, null, null, "JaneDoe.pdf");
+    }
+
+    @Test
+    public void testWritesRequestedRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/downloadOfferLetter");
+        request.addHeader("Range", "bytes=9-12");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(offerLetter, false, false, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 9-12/" + CONTENT.length, response.getHeader("Content-Range"));
+        assertEquals(4, response.getContentLength());
+        assertEquals("0123", response.getContentAsString());
+        verifyNoInteractions(auditService);
+    }
+
+    @Test
+    public void testRejectsUnsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/viewOfferLetter");
+        request.addHeader("Range", "bytes=" + CONTENT.length + "-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(offerLetter, true, false, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + CONTENT.length, response.getHeader("Content-Range"));
+    }
+
+    @Test
+    public void testHandsFileToSendfileWhenSupported() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/viewOfferLetter");
+        request.setAttribute(OfferLetterContentWriter.SENDFILE_SUPPORTED_ATTR, Boolean.TRUE);
+        request.addHeader("Range", "bytes=-10");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(offerLetter, true, false, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute(OfferLetterContentWriter.SENDFILE_FILENAME_ATTR));
+        assertEquals((long) CONTENT.length - 10, request.getAttribute(OfferLetterContentWriter.SENDFILE_START_ATTR));
+        assertEquals((long) CONTENT.length, request.getAttribute(OfferLetterContentWriter.SENDFILE_END_ATTR));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testReturnsNotModifiedForMatchingEtag() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/viewOfferLetter/1");
+        request.addHeader("If-None-Match", "\"other\", W/\"" + HASH + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(offerLetter, true, true, request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+        assertEquals(OfferLetterContentWriter.IMMUTABLE_CACHE_CONTROL, response.getHeader("Cache-Control"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testIgnoresRangeWhenIfRangeIsStale() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/downloadOfferLetter/1");
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(offerLetter, false, true, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testWritesAsyncOnlyWhenTheClientIsReady() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/stream/viewOfferLetter/1");
+        request.setAsyncSupported(true);
+        request.addHeader("Range", "bytes=9-");
+        SlowClientResponse response = new SlowClientResponse();
+        writer.writeAsync(offerLetter, true, true, request, response);
+
+        // The handler returns before any content is written
+        assertTrue(request.isAsyncStarted());
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.received.size());
+
+        // One chunk per writable event, then the request completes on the next one
+        response.becomeWritable();
+        assertEquals("0123456789", response.received.toString(StandardCharsets.US_ASCII));
+        assertTrue(request.isAsyncStarted());
+        response.becomeWritable();
+        assertFalse(request.isAsyncStarted());
+    }
+
+    @Test
+    public void testParseRange() {
+        assertNull(OfferLetterContentWriter.parseRange(null, 100));
+        assertNull(OfferLetterContentWriter.parseRange("bytes=0-1,5-6", 100));
+        assertNull(OfferLetterContentWriter.parseRange("items=0-1", 100));
+        assertEquals(99, OfferLetterContentWriter.parseRange("bytes=50-500", 100).end);
+        assertEquals(0, OfferLetterContentWriter.parseRange("bytes=-500", 100).start);
+        assertEquals(OfferLetterContentWriter.ByteRange.UNSATISFIABLE, OfferLetterContentWriter.parseRange("bytes=-0", 100));
+    }
+
+    /**
+     * Response whose connection accepts one write each time it becomes writable
+     */
+    private static final class SlowClientResponse extends HttpServletResponseWrapper {
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private WriteListener listener;
+        private boolean ready;
+
+        SlowClientResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        void becomeWritable() throws IOException {
+            ready = true;
+            listener.onWritePossible();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return ready;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    listener = writeListener;
+                }
+
+                @Override
+                public void write(int b) {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    received.write(b, off, len);
+                    ready = false;
+                }
+            };
+        }
+    }
+}
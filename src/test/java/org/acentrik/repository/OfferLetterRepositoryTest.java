@@ -0,0 +1,118 @@
+package org.acentrik.repository;
+
+import org.acentrik.model.ArchivedOfferLetter;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.OfferLetterFilter;
+import org.acentrik.model.OfferLetterSummary;
+import org.acentrik.model.User;
+import org.acentrik.model.UserOfferLetterSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the projection and listing queries of {@link OfferLetterRepository}.
+ */
+@DataJpaTest
+public class OfferLetterRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OfferLetterRepository offerLetterRepository;
+
+    @Autowired
+    private ArchivedOfferLetterRepository archivedOfferLetterRepository;
+
+    @Test
+    public void testFindUsersWithLatestOfferLetter() {
+        User withLetters = userRepository.save(new User("jane@example.com", "hash", "USER"));
+        User withoutLetters = userRepository.save(new User("john@example.com", "hash", "USER"));
+
+        LocalDateTime now = LocalDateTime.now();
+        offerLetterRepository.save(new OfferLetter(withLetters, "old.pdf", "ref1", "hash1", 10, now.minusDays(1)));
+        offerLetterRepository.save(new OfferLetter(withLetters, "tie-low.pdf", "ref2", "hash2", 10, now));
+        OfferLetter latest = offerLetterRepository.save(new OfferLetter(withLetters, "tie-high.pdf", "ref3", "hash3", 10, now));
+
+        List<UserOfferLetterSummary> summaries = offerLetterRepository.findUsersWithLatestOfferLetter();
+
+        assertEquals(2, summaries.size());
+        UserOfferLetterSummary first = summaries.get(0);
+        assertEquals(withLetters.getId(), first.getUserId());
+        assertEquals("jane@example.com", first.getUsername());
+        assertEquals(latest.getId(), first.getLetterId());
+        assertEquals("tie-high.pdf", first.getFileName());
+
+        UserOfferLetterSummary second = summaries.get(1);
+        assertEquals(withoutLetters.getId(), second.getUserId());
+        assertFalse(second.hasOfferLetter());
+        assertNull(second.getFileName());
+    }
+
+    @Test
+    public void testFindSummariesPagesWithKeyset() {
+        User admin = userRepository.save(new User("admin@example.com", "hash", "ADMIN"));
+        User employee = userRepository.save(new User("jane@example.com", "hash", "USER"));
+
+        LocalDateTime now = LocalDateTime.now();
+        offerLetterRepository.save(new OfferLetter(admin, "admin.pdf", "ref0", "hash0", 10, now));
+        for (int i = 0; i < 5; i++) {
+            // Two letters per timestamp, so pages have to break ties by ID
+            offerLetterRepository.save(new OfferLetter(employee, "letter" + i + ".pdf", "ref" + i, "hash" + i, 10, now.minusHours(i / 2)));
+        }
+
+        OfferLetterFilter filter = new OfferLetterFilter();
+        filter.setEmployeesOnly(true);
+
+        List<OfferLetterSummary> firstPage = offerLetterRepository.findSummaries(filter, null, null, 3);
+        OfferLetterSummary last = firstPage.get(2);
+        List<OfferLetterSummary> secondPage = offerLetterRepository.findSummaries(filter, last.getCreatedAt(), last.getId(), 3);
+
+        assertEquals(List.of("letter1.pdf", "letter0.pdf", "letter3.pdf"),
+                firstPage.stream().map(OfferLetterSummary::getFileName).toList());
+        assertEquals(List.of("letter2.pdf", "letter4.pdf"),
+                secondPage.stream().map(OfferLetterSummary::getFileName).toList());
+        assertEquals("jane@example.com", secondPage.get(0).getUsername());
+
+        filter.setFileName("LETTER4");
+        assertEquals(1, offerLetterRepository.findSummaries(filter, null, null, 10).size());
+
+        filter.setFileName("%");
+        assertEquals(0, offerLetterRepository.findSummaries(filter, null, null, 10).size());
+    }
+
+    @Test
+    public void testFindSummariesListsArchivedLetters() {
+        User employee = userRepository.save(new User("archived@example.com", "hash", "USER"));
+
+        LocalDateTime now = LocalDateTime.now();
+        OfferLetter latest = offerLetterRepository.save(new OfferLetter(employee, "latest.pdf", "ref1", "hash1", 10, now));
+        archivedOfferLetterRepository.save(new ArchivedOfferLetter(100_000L, employee, "older.pdf", "hash2", 10L,
+                now.minusDays(2), now, "segment-20250101000000-00000000.olz", 0));
+        offerLetterRepository.save(new OfferLetter(employee, "middle.pdf", "ref3", "hash3", 10, now.minusDays(1)));
+
+        OfferLetterFilter filter = new OfferLetterFilter();
+        filter.setUserId(employee.getId());
+
+        List<OfferLetterSummary> firstPage = offerLetterRepository.findSummaries(filter, null, null, 2);
+        OfferLetterSummary last = firstPage.get(1);
+        List<OfferLetterSummary> secondPage = offerLetterRepository.findSummaries(filter, last.getCreatedAt(), last.getId(), 2);
+
+        assertEquals(List.of("latest.pdf", "middle.pdf"), firstPage.stream().map(OfferLetterSummary::getFileName).toList());
+        assertEquals(latest.getId(), firstPage.get(0).getId());
+        assertFalse(firstPage.get(0).isArchived());
+        assertEquals(1, secondPage.size());
+        assertEquals(100_000L, secondPage.get(0).getId());
+        assertTrue(secondPage.get(0).isArchived());
+        assertEquals("archived@example.com", secondPage.get(0).getUsername());
+    }
+}
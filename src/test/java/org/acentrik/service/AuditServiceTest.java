@@ -0,0 +1,133 @@
+package org.acentrik.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acentrik.model.AuditEvent;
+import org.acentrik.model.AuditEventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the {@link AuditService} pipeline, its ring buffer and the file sink rotation.
+ * The test configuration enables both the file and the JDBC sink.
+ */
+@SpringBootTest
+public class AuditServiceTest {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.audit.file.path}")
+    private String auditFile;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Verify that recorded events reach the audit_events table and the audit file.
+     */
+    @Test
+    public void testEventsAreWrittenToAllSinks() throws Exception {
+        auditService.logOfferLetterEvent("Admin", AuditEventType.OFFER_LETTER_DELETE, 42L, "audit.test@example.com", "test.pdf");
+
+        String sql = "SELECT COUNT(*) FROM audit_events WHERE type = 'OFFER_LETTER_DELETE' AND target = 'audit.test@example.com'";
+        long deadline = System.currentTimeMillis() + 5000;
+        while (jdbcTemplate.queryForObject(sql, Integer.class) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, jdbcTemplate.queryForObject(sql, Integer.class));
+
+        // The file sink is written before the JDBC sink in the same batch
+        String lines = Files.readString(Paths.get(auditFile), StandardCharsets.UTF_8);
+        assertTrue(lines.contains("\"category\":\"OFFER_LETTER\",\"type\":\"OFFER_LETTER_DELETE\",\"actor\":\"Admin\""), lines);
+    }
+
+    /**
+     * Verify that events from concurrent producers are all consumed, in order per producer,
+     * and that a full buffer rejects events.
+     */
+    @Test
+    public void testRingBufferKeepsProducerOrder() throws Exception {
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String actor = "producer-" + p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    AuditEvent event = new AuditEvent(AuditEventType.LOGIN_SUCCESS, actor, null, (long) i, null);
+                    while (!buffer.offer(event)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long[] next = new long[producers];
+        List<AuditEvent> drained = new ArrayList<>();
+        int consumed = 0;
+        while (consumed < producers * perProducer) {
+            drained.clear();
+            consumed += buffer.drain(drained, 16);
+            for (AuditEvent event : drained) {
+                int producer = Integer.parseInt(event.getActor().substring("producer-".length()));
+                assertEquals(next[producer]++, event.getOfferLetterId());
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, buffer.size());
+
+        for (int i = 0; i < buffer.capacity(); i++) {
+            assertTrue(buffer.offer(new AuditEvent(AuditEventType.LOGIN_FAILURE, "full", null, null, null)));
+        }
+        assertFalse(buffer.offer(new AuditEvent(AuditEventType.LOGIN_FAILURE, "full", null, null, null)));
+    }
+
+    /**
+     * Verify that the file sink rotates by size and keeps only the newest rotated files.
+     */
+    @Test
+    public void testFileSinkRotatesBySize() throws Exception {
+        Path file = tempDir.resolve("audit.log");
+        FileAuditSink sink = new FileAuditSink(file.toString(), 300, 2, new ObjectMapper());
+        try {
+            for (int i = 0; i < 10; i++) {
+                sink.write(Collections.singletonList(new AuditEvent(AuditEventType.LOGIN_SUCCESS, "user" + i, null, null, null)));
+                // Rotated file names have millisecond resolution
+                Thread.sleep(2);
+            }
+        } finally {
+            sink.close();
+        }
+
+        assertTrue(Files.size(file) <= 300);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(3, files.count());
+        }
+        assertTrue(Files.readString(file).contains("\"actor\":\"user9\""));
+    }
+}
@@ -0,0 +1,126 @@
+package org.acentrik.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.acentrik.model.EmailStatus;
+import org.acentrik.model.OutboundEmail;
+import org.acentrik.repository.OutboundEmailRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link EmailQueueService} against a local GreenMail SMTP server.
+ * The test configuration points spring.mail at GreenMail's SMTP test port (3025) with user test/test.
+ */
+@SpringBootTest
+public class EmailQueueServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("test", "test"));
+
+    @Autowired
+    private EmailQueueService emailQueueService;
+
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+
+    /**
+     * Verify that a queued email is delivered by the mail workers and marked as sent.
+     */
+    @Test
+    public void testQueuedEmailIsDelivered() throws Exception {
+        OutboundEmail queued = emailQueueService.enqueuePdfEmail(
+                "candidate@example.com", "Your Offer", "Welcome aboard", "%PDF-1.7".getBytes(), "offer.pdf");
+        assertEquals(EmailStatus.PENDING, queued.getStatus());
+
+        assertTrue(greenMail.waitForIncomingEmail(10000, 1), "Queued email should be delivered");
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals("Your Offer", received[0].getSubject());
+        assertEquals("candidate@example.com", received[0].getAllRecipients()[0].toString());
+
+        OutboundEmail delivered = awaitStatus(queued.getId(), EmailStatus.SENT);
+        assertEquals(1, delivered.getAttempts());
+        assertNull(delivered.getAttachment(), "Attachment should be cleared after delivery");
+        assertEquals("", delivered.getBody(), "Body should be cleared after delivery");
+        assertNotNull(delivered.getClaimedBy());
+    }
+
+    /**
+     * Verify that an email that can't be built fails permanently with its body and attachment cleared.
+     */
+    @Test
+    public void testPermanentFailureClearsBodyAndAttachment() {
+        OutboundEmail email = new OutboundEmail("not an address", "Your Offer", "Password: secret", "%PDF-1.7".getBytes(), "offer.pdf");
+        // Not due, so the poller leaves it to this test
+        email.setNextAttemptAt(LocalDateTime.now().plusDays(1));
+        email = outboundEmailRepository.save(email);
+
+        emailQueueService.deliver(List.of(email.getId()));
+
+        OutboundEmail failed = outboundEmailRepository.findById(email.getId()).orElseThrow();
+        assertEquals(EmailStatus.FAILED, failed.getStatus());
+        assertEquals("", failed.getBody());
+        assertNull(failed.getAttachment());
+    }
+
+    /**
+     * Verify that only claims older than the claim lease are released back to the queue.
+     */
+    @Test
+    public void testOnlyExpiredClaimsAreReleased() {
+        OutboundEmail live = claimed(LocalDateTime.now());
+        OutboundEmail expired = claimed(LocalDateTime.now().minusHours(1));
+
+        emailQueueService.releaseExpiredClaims();
+
+        assertEquals(EmailStatus.SENDING, outboundEmailRepository.findById(live.getId()).orElseThrow().getStatus());
+        assertEquals(EmailStatus.PENDING, outboundEmailRepository.findById(expired.getId()).orElseThrow().getStatus());
+        outboundEmailRepository.deleteAllById(List.of(live.getId(), expired.getId()));
+    }
+
+    /**
+     * Verify that the retry delay grows exponentially and is capped.
+     */
+    @Test
+    public void testBackoffGrowsExponentially() {
+        assertEquals(1, emailQueueService.backoffSeconds(1));
+        assertEquals(2, emailQueueService.backoffSeconds(2));
+        assertEquals(4, emailQueueService.backoffSeconds(3));
+        assertEquals(3600, emailQueueService.backoffSeconds(30));
+    }
+
+    private OutboundEmail claimed(LocalDateTime claimedAt) {
+        OutboundEmail email = new OutboundEmail("claimed@example.com", "Your Offer", "Welcome aboard", null, null);
+        // Not due, so the poller leaves it alone once released
+        email.setNextAttemptAt(LocalDateTime.now().plusDays(1));
+        email.setStatus(EmailStatus.SENDING);
+        email.setClaimedBy("another-node");
+        email.setClaimedAt(claimedAt);
+        return outboundEmailRepository.save(email);
+    }
+
+    private OutboundEmail awaitStatus(Long id, EmailStatus status) throws InterruptedException {
+        OutboundEmail email = null;
+        for (int i = 0; i < 50; i++) {
+            email = emailQueueService.getEmail(id).orElseThrow();
+            if (email.getStatus() == status) {
+                return email;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Email " + id + " did not reach status " + status + ", was " + email.getStatus());
+    }
+}
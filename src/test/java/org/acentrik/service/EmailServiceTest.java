@@ -49,6 +49,9 @@ public class EmailServiceTest {
             java.lang.reflect.Field mailSenderField = EmailService.class.getDeclaredField("mailSender");
             mailSenderField.setAccessible(true);
             mailSenderField.set(emailService, mailSender);
+            java.lang.reflect.Field metricsField = EmailService.class.getDeclaredField("metrics");
+            metricsField.setAccessible(true);
+            metricsField.set(emailService, new OfferLetterMetrics(new io.micrometer.core.instrument.simple.SimpleMeterRegistry()));
         } catch (Exception e) {
             System.out.println("[DEBUG_LOG] Error setting mailSender field: " + e.getMessage());
             throw new RuntimeException("Failed to set mailSender field", e);
@@ -131,6 +134,9 @@ public class EmailServiceTest {
             java.lang.reflect.Field mailSenderField = EmailService.class.getDeclaredField("mailSender");
             mailSenderField.setAccessible(true);
             mailSenderField.set(emailService, mailSender);
+            java.lang.reflect.Field metricsField = EmailService.class.getDeclaredField("metrics");
+            metricsField.setAccessible(true);
+            metricsField.set(emailService, new OfferLetterMetrics(new io.micrometer.core.instrument.simple.SimpleMeterRegistry()));
         } catch (Exception e) {
             System.out.println("[DEBUG_LOG] Error setting mailSender field: " + e.getMessage());
             throw new RuntimeException("Failed to set mailSender field", e);
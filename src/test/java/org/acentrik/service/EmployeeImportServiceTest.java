@@ -0,0 +1,93 @@
+package org.acentrik.service;
+
+import org.acentrik.model.EmployeeImportResult;
+import org.acentrik.model.User;
+import org.acentrik.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link EmployeeImportService} against the in-memory test database.
+ */
+@SpringBootTest
+public class EmployeeImportServiceTest {
+
+    @Autowired
+    private EmployeeImportService employeeImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    /**
+     * Verify that valid rows are inserted and every other row is reported with a reason.
+     */
+    @Test
+    public void testImportsValidRowsAndReportsRejections() throws Exception {
+        String csv = "username,password\n"
+                + "import.one@example.com,Import#Pass2025\n"
+                + "import.two@example.com,\n"
+                + "User,Import#Pass2025\n"
+                + "import.one@example.com,Import#Pass2025\n"
+                + "import.three@example.com,weak\n"
+                + ",Import#Pass2025\n";
+
+        EmployeeImportResult result = employeeImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getAccepted().size());
+        assertEquals(1, result.getAccepted().get(0).getRow());
+        assertNull(result.getAccepted().get(0).getGeneratedPassword());
+        String generatedPassword = result.getAccepted().get(1).getGeneratedPassword();
+        assertNotNull(generatedPassword);
+
+        assertEquals(4, result.getRejected().size());
+        assertEquals("Username already exists", result.getRejected().get(0).getReason());
+        assertEquals("Duplicate username in file", result.getRejected().get(1).getReason());
+        assertTrue(result.getRejected().get(2).getReason().startsWith("Password does not meet complexity requirements"));
+        assertEquals("Username is required", result.getRejected().get(3).getReason());
+
+        User imported = userRepository.findByUsername("import.two@example.com").orElseThrow();
+        assertEquals("USER", imported.getRole());
+        assertNotNull(imported.getPasswordExpiryDate());
+        assertTrue(passwordEncoder.matches(generatedPassword, imported.getPassword()));
+    }
+
+    /**
+     * Verify that an upload without data rows is refused.
+     */
+    @Test
+    public void testRejectsEmptyImport() {
+        assertThrows(IllegalArgumentException.class, () -> employeeImportService.importCsv(
+                new ByteArrayInputStream("username,password\n".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Verify that a header saved with a UTF-8 byte order mark is still recognised.
+     */
+    @Test
+    public void testImportsCsvWithByteOrderMark() throws Exception {
+        String csv = "\uFEFFusername,password\r\n"
+                + "import.bom@example.com,Import#Pass2025\r\n";
+
+        EmployeeImportResult result = employeeImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getAccepted().size());
+        assertTrue(result.getRejected().isEmpty());
+        assertTrue(userRepository.findByUsername("import.bom@example.com").isPresent());
+    }
+}
@@ -0,0 +1,64 @@
+package org.acentrik.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link FileSystemBlobStore}.
+ */
+public class FileSystemBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    /**
+     * Verify that identical content stored from memory and from a stream is addressed by its
+     * SHA-256 and kept only once.
+     */
+    @Test
+    public void testIdenticalContentIsStoredOnce() throws Exception {
+        FileSystemBlobStore blobStore = new FileSystemBlobStore(root.toString());
+        blobStore.init();
+        byte[] content = "%PDF-1.7 offer letter".getBytes(StandardCharsets.UTF_8);
+
+        BlobStore.StoredBlob first = blobStore.store(content);
+        BlobStore.StoredBlob second = blobStore.store(new ByteArrayInputStream(content));
+
+        assertEquals(64, first.getHash().length());
+        assertEquals(first.getRef(), second.getRef());
+        assertEquals(content.length, second.getSize());
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count(), "Only one copy should be stored");
+        }
+
+        try (InputStream in = Channels.newInputStream(blobStore.openChannel(first.getRef()))) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+
+        assertTrue(blobStore.delete(first.getRef()));
+        assertFalse(blobStore.exists(first.getRef()));
+    }
+
+    /**
+     * Verify that references that aren't SHA-256 hashes are rejected, so they can't escape the root.
+     */
+    @Test
+    public void testInvalidReferenceIsRejected() {
+        FileSystemBlobStore blobStore = new FileSystemBlobStore(root.toString());
+        assertThrows(IllegalArgumentException.class, () -> blobStore.openChannel("../../etc/passwd"));
+    }
+}
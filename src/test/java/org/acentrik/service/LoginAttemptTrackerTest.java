@@ -0,0 +1,98 @@
+package org.acentrik.service;
+
+import org.acentrik.model.User;
+import org.acentrik.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link LoginAttemptTracker} write-behind against the in-memory test database.
+ */
+@SpringBootTest(properties = "app.security.login-attempts.flush-interval-ms=3600000")
+public class LoginAttemptTrackerTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+
+    @Autowired
+    private PasswordValidator passwordValidator;
+
+    /**
+     * Verify that failed attempts are only written on flush and a success clears them again.
+     */
+    @Test
+    public void testFailedAttemptsAreWrittenBehind() {
+        userRepository.save(new User("tracker.pending@example.com", "x", "USER"));
+
+        assertFalse(userService.recordFailedLogin("tracker.pending@example.com"));
+        assertFalse(userService.recordFailedLogin("tracker.pending@example.com"));
+        assertEquals(0, stored("tracker.pending@example.com").getFailedLoginAttempts());
+
+        loginAttemptTracker.flush();
+        assertEquals(2, stored("tracker.pending@example.com").getFailedLoginAttempts());
+
+        userService.recordSuccessfulLogin("tracker.pending@example.com");
+        loginAttemptTracker.flush();
+        assertEquals(0, stored("tracker.pending@example.com").getFailedLoginAttempts());
+    }
+
+    /**
+     * Verify that reaching the threshold locks the account in the database right away.
+     */
+    @Test
+    public void testLockIsWrittenImmediately() {
+        userRepository.save(new User("tracker.locked@example.com", "x", "USER"));
+
+        for (int i = 1; i < User.MAX_FAILED_LOGIN_ATTEMPTS; i++) {
+            assertFalse(userService.recordFailedLogin("tracker.locked@example.com"));
+        }
+        assertTrue(userService.recordFailedLogin("tracker.locked@example.com"));
+
+        User locked = stored("tracker.locked@example.com");
+        assertTrue(locked.isAccountLocked());
+        assertEquals(User.MAX_FAILED_LOGIN_ATTEMPTS, locked.getFailedLoginAttempts());
+        assertTrue(userService.isAccountLocked("tracker.locked@example.com"));
+    }
+
+    /**
+     * Verify that a password reset unlocks the account and pending counters don't restore the old state.
+     */
+    @Test
+    public void testPasswordResetDiscardsPendingAttempts() {
+        userRepository.save(new User("tracker.reset@example.com", "x", "USER"));
+
+        assertFalse(userService.recordFailedLogin("tracker.reset@example.com"));
+        String token = userService.createPasswordResetToken("tracker.reset@example.com");
+        assertTrue(userService.resetPassword(token, passwordValidator.generateRandomPassword()));
+        loginAttemptTracker.flush();
+        assertEquals(0, stored("tracker.reset@example.com").getFailedLoginAttempts());
+
+        for (int i = 0; i < User.MAX_FAILED_LOGIN_ATTEMPTS; i++) {
+            userService.recordFailedLogin("tracker.reset@example.com");
+        }
+        assertTrue(stored("tracker.reset@example.com").isAccountLocked());
+        token = userService.createPasswordResetToken("tracker.reset@example.com");
+        assertTrue(userService.resetPassword(token, passwordValidator.generateRandomPassword()));
+        loginAttemptTracker.flush();
+
+        User reset = stored("tracker.reset@example.com");
+        assertFalse(reset.isAccountLocked());
+        assertEquals(0, reset.getFailedLoginAttempts());
+        assertFalse(userService.recordFailedLogin("tracker.reset@example.com"));
+    }
+
+    private User stored(String username) {
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+}
@@ -0,0 +1,93 @@
+package org.acentrik.service;
+
+import org.acentrik.config.AppConfig;
+import org.acentrik.model.FormData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OfferLetterBatchService}.
+ */
+@SpringBootTest
+public class OfferLetterBatchServiceTest {
+
+    @Autowired
+    private OfferLetterGenerationService generationService;
+
+    @Autowired
+    private CsvParser csvParser;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Verify that a batch larger than the render pool's queue is written completely, and that rows
+     * differing only in the case or whitespace of the email share one account.
+     */
+    @Test
+    public void testCompletesBatchBeyondQueueCapacity() throws Exception {
+        ThreadPoolTaskExecutor executor = new AppConfig().pdfRenderExecutor(1);
+        executor.initialize();
+        try {
+            OfferLetterBatchService batchService = new OfferLetterBatchService(generationService, csvParser, auditService, executor);
+            ReflectionTestUtils.setField(batchService, "maxRows", 1000);
+
+            List<FormData> rows = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                rows.add(formData("Row" + i, i % 2 == 0 ? " Batch-Case@Example.com " : "batch-case@example.com"));
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            batchService.generateZip(rows, baos, "Admin");
+
+            List<String> entries = new ArrayList<>();
+            String report = null;
+            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    entries.add(entry.getName());
+                    if (entry.getName().equals(OfferLetterBatchService.REPORT_ENTRY)) {
+                        report = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                    }
+                }
+            }
+            assertEquals(13, entries.size());
+            assertFalse(report.contains("FAILED"), report);
+
+            assertTrue(userService.getUserByUsername("batch-case@example.com").isPresent());
+            assertTrue(userService.getUserByUsername(" Batch-Case@Example.com ").isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static FormData formData(String firstName, String email) {
+        FormData formData = new FormData();
+        formData.setFirstName(firstName);
+        formData.setLastName("Smith");
+        formData.setEmail(email);
+        formData.setDomain("Engineering");
+        formData.setManager("John Smith");
+        formData.setRole("Software Engineer");
+        formData.setJoiningDate(LocalDate.of(2025, 1, 6));
+        return formData;
+    }
+}
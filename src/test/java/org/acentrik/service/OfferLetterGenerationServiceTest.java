@@ -0,0 +1,71 @@
+package org.acentrik.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.acentrik.model.FormData;
+import org.acentrik.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OfferLetterGenerationService}.
+ */
+@SpringBootTest
+public class OfferLetterGenerationServiceTest {
+
+    @Autowired
+    private OfferLetterGenerationService generationService;
+
+    @Autowired
+    private OfferLetterService offerLetterService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    /**
+     * Verify that an identical request returns the stored letter and a changed one renders a new letter.
+     */
+    @Test
+    public void testReusesIdenticalStoredLetter() throws Exception {
+        User user = generationService.provisionEmployee("dedup-ada@example.com").getUser();
+        double reusedBefore = registry.get("offerletter.generated").tag("outcome", "reused").counter().count();
+
+        OfferLetterGenerationService.StoredOfferLetter first = generationService.renderAndStore(formData("Software Engineer"), user, "AdaSmith.pdf");
+        assertFalse(first.isReused());
+        assertEquals(64, first.getOfferLetter().getRenderFingerprint().length());
+
+        // The email flow stores under another file name, but the letter is the same
+        OfferLetterGenerationService.StoredOfferLetter again = generationService.renderAndStore(formData("Software Engineer"), user, "AdaSmith_OfferLetter.pdf");
+        assertTrue(again.isReused());
+        assertEquals(first.getOfferLetter().getId(), again.getOfferLetter().getId());
+        assertArrayEquals(first.getContent(), again.getContent());
+        assertEquals(1, offerLetterService.getOfferLettersForUser(user).size());
+        assertEquals(reusedBefore + 1, registry.get("offerletter.generated").tag("outcome", "reused").counter().count());
+        assertTrue(registry.get("offerletter.dedup.ratio").gauge().value() > 0);
+
+        OfferLetterGenerationService.StoredOfferLetter changed = generationService.renderAndStore(formData("Staff Engineer"), user, "AdaSmith.pdf");
+        assertFalse(changed.isReused());
+        assertNotEquals(first.getOfferLetter().getId(), changed.getOfferLetter().getId());
+        assertEquals(2, offerLetterService.getOfferLettersForUser(user).size());
+    }
+
+    private static FormData formData(String role) {
+        FormData formData = new FormData();
+        formData.setFirstName("Ada");
+        formData.setLastName("Smith");
+        formData.setEmail("dedup-ada@example.com");
+        formData.setDomain("Engineering");
+        formData.setManager("John Smith");
+        formData.setRole(role);
+        formData.setJoiningDate(LocalDate.of(2025, 1, 6));
+        return formData;
+    }
+}
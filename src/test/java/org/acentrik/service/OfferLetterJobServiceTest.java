@@ -0,0 +1,72 @@
+package org.acentrik.service;
+
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.OfferLetterJobStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OfferLetterJobService}.
+ */
+@SpringBootTest
+public class OfferLetterJobServiceTest {
+
+    @Autowired
+    private OfferLetterJobService offerLetterJobService;
+
+    @Autowired
+    private OfferLetterService offerLetterService;
+
+    /**
+     * Verify that a submitted job renders and stores the offer letter.
+     */
+    @Test
+    public void testJobGeneratesAndStoresOfferLetter() throws Exception {
+        OfferLetterJob job = offerLetterJobService.submit(formData("jobs@example.com"), "Admin");
+        assertEquals("JaneDoe.pdf", job.getFileName());
+
+        awaitFinished(job);
+        assertEquals(OfferLetterJobStatus.COMPLETED, job.getStatus(), "Job failed: " + job.getError());
+        assertEquals(100, job.getProgress());
+        assertNull(job.getFormData(), "Form data should be released once the job has run");
+
+        OfferLetter offerLetter = offerLetterService.getOfferLetterById(job.getOfferLetterId()).orElseThrow();
+        assertEquals("jobs@example.com", offerLetter.getUser().getUsername());
+        assertTrue(new String(offerLetterService.readContent(offerLetter), 0, 5).startsWith("%PDF"));
+    }
+
+    /**
+     * Verify that jobs without an employee email are rejected up front.
+     */
+    @Test
+    public void testRejectsJobWithoutEmail() {
+        assertThrows(IllegalArgumentException.class, () -> offerLetterJobService.submit(formData(" "), "Admin"));
+    }
+
+    private static FormData formData(String email) {
+        FormData formData = new FormData();
+        formData.setFirstName("Jane");
+        formData.setLastName("Doe");
+        formData.setEmail(email);
+        formData.setDomain("Engineering");
+        formData.setManager("John Smith");
+        formData.setRole("Software Engineer");
+        formData.setJoiningDate(LocalDate.of(2025, 1, 6));
+        return formData;
+    }
+
+    private static void awaitFinished(OfferLetterJob job) throws InterruptedException {
+        for (int i = 0; i < 100 && !job.getStatus().isFinished(); i++) {
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.acentrik.service;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfOutline;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.OfferLetterFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OfferLetterMergeService}.
+ */
+@SpringBootTest
+public class OfferLetterMergeServiceTest {
+
+    @Autowired
+    private OfferLetterMergeService offerLetterMergeService;
+
+    @Autowired
+    private OfferLetterGenerationService generationService;
+
+    @Autowired
+    private OfferLetterService offerLetterService;
+
+    /**
+     * Verify that letters selected by ID are merged in the requested order with one bookmark each.
+     */
+    @Test
+    public void testMergesLettersInRequestedOrder() throws Exception {
+        OfferLetter first = store("Ada", "merge-ada@example.com");
+        OfferLetter second = store("Grace", "merge-grace@example.com");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // Unknown and repeated IDs are skipped
+        int count = offerLetterMergeService.merge(
+                offerLetterMergeService.selectByIds(List.of(second.getId(), -1L, first.getId(), second.getId())), baos, "Admin");
+        assertEquals(2, count);
+
+        int letterPages = pageCount(offerLetterService.readContent(first));
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())))) {
+            assertEquals(2 * letterPages, pdf.getNumberOfPages());
+            assertTrue(PdfTextExtractor.getTextFromPage(pdf.getPage(1)).contains("Dear Grace Smith,"));
+            assertTrue(PdfTextExtractor.getTextFromPage(pdf.getPage(letterPages + 1)).contains("Dear Ada Smith,"));
+
+            List<PdfOutline> bookmarks = pdf.getOutlines(false).getAllChildren();
+            assertEquals(2, bookmarks.size());
+            assertTrue(bookmarks.get(0).getTitle().startsWith("merge-grace@example.com - GraceSmith.pdf"));
+            assertTrue(bookmarks.get(1).getTitle().startsWith("merge-ada@example.com - AdaSmith.pdf"));
+        }
+    }
+
+    /**
+     * Verify that a date range selects the employee letters created in it.
+     */
+    @Test
+    public void testSelectsByDateRange() throws Exception {
+        store("Linus", "merge-linus@example.com");
+
+        OfferLetterFilter filter = new OfferLetterFilter();
+        filter.setCreatedFrom(LocalDate.now());
+        filter.setUsername("merge-linus");
+        filter.setEmployeesOnly(true);
+        OfferLetterMergeService.Selection selection = offerLetterMergeService.selectByFilter(filter);
+        assertTrue(selection.hasNext());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        assertEquals(1, offerLetterMergeService.merge(selection, baos, "Admin"));
+
+        filter.setCreatedFrom(LocalDate.now().plusDays(1));
+        assertFalse(offerLetterMergeService.selectByFilter(filter).hasNext(), "No letters are created in the future");
+    }
+
+    /**
+     * Verify that a selection without IDs is rejected.
+     */
+    @Test
+    public void testRejectsEmptyIdSelection() {
+        assertThrows(IllegalArgumentException.class, () -> offerLetterMergeService.selectByIds(List.of()));
+    }
+
+    private static int pageCount(byte[] content) throws Exception {
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(content)))) {
+            return pdf.getNumberOfPages();
+        }
+    }
+
+    private OfferLetter store(String firstName, String email) throws Exception {
+        FormData formData = new FormData();
+        formData.setFirstName(firstName);
+        formData.setLastName("Smith");
+        formData.setEmail(email);
+        formData.setDomain("Engineering");
+        formData.setManager("John Smith");
+        formData.setRole("Software Engineer");
+        formData.setJoiningDate(LocalDate.of(2025, 1, 6));
+
+        byte[] pdf = generationService.render(formData);
+        return offerLetterService.saveOfferLetter(generationService.provisionEmployee(email).getUser(), firstName + "Smith.pdf", pdf);
+    }
+}
@@ -0,0 +1,70 @@
+package org.acentrik.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * Tests for {@link OfferLetterRenderCache}.
+ */
+public class OfferLetterRenderCacheTest {
+
+    /**
+     * Verify that a PDF is loaded once per fingerprint and weighed by its size.
+     */
+    @Test
+    public void testLoadsOncePerFingerprint() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OfferLetterRenderCache cache = new OfferLetterRenderCache(1 << 20, 300, false, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        byte[] pdf = new byte[1000];
+
+        cache.get("a", () -> {
+            loads.incrementAndGet();
+            return pdf;
+        });
+        cache.get("a", () -> {
+            loads.incrementAndGet();
+            return pdf;
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "offer-letter-pdfs").tag("result", "hit").functionCounter().count());
+        assertEquals(1000, meterRegistry.get("offerletter.render.cache.size").tag("storage", "heap").gauge().value());
+    }
+
+    /**
+     * Verify that off-heap entries are returned as copies of the cached bytes.
+     */
+    @Test
+    public void testOffHeapReturnsCopies() throws Exception {
+        OfferLetterRenderCache cache = new OfferLetterRenderCache(1 << 20, 300, true, new SimpleMeterRegistry());
+        byte[] pdf = {'%', 'P', 'D', 'F'};
+        cache.put("a", pdf);
+
+        byte[] first = cache.get("a", () -> new byte[0]);
+        byte[] second = cache.get("a", () -> new byte[0]);
+        assertArrayEquals(pdf, first);
+        assertNotSame(first, second);
+    }
+
+    /**
+     * Verify that PDFs beyond the byte limit are evicted.
+     */
+    @Test
+    public void testEvictsBySize() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OfferLetterRenderCache cache = new OfferLetterRenderCache(1500, 300, false, meterRegistry);
+        cache.put("a", new byte[1000]);
+        cache.put("b", new byte[1000]);
+
+        assertEquals(1000, meterRegistry.get("offerletter.render.cache.size").gauge().value());
+        cache.invalidateAll();
+        assertEquals(0, meterRegistry.get("offerletter.render.cache.size").gauge().value());
+    }
+}
@@ -0,0 +1,162 @@
+package org.acentrik.service;
+
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.User;
+import org.acentrik.repository.ArchivedOfferLetterRepository;
+import org.acentrik.repository.OfferLetterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OfferLetterRetentionService}.
+ */
+@SpringBootTest
+public class OfferLetterRetentionServiceTest {
+
+    @Autowired
+    private OfferLetterRetentionService retentionService;
+
+    @Autowired
+    private OfferLetterGenerationService generationService;
+
+    @Autowired
+    private OfferLetterService offerLetterService;
+
+    @Autowired
+    private OfferLetterRepository offerLetterRepository;
+
+    @Autowired
+    private ArchivedOfferLetterRepository archivedOfferLetterRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private OfferLetterArchiveStore archiveStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void restorePolicies() {
+        ReflectionTestUtils.setField(retentionService, "keepLatestPerUser", 3);
+        ReflectionTestUtils.setField(retentionService, "archiveAfterMonths", 12);
+        ReflectionTestUtils.setField(retentionService, "segmentMaxBytes", 64L * 1024 * 1024);
+    }
+
+    /**
+     * Verify that letters beyond the latest one move to the archive and are still served by ID.
+     */
+    @Test
+    public void testArchivesOlderLettersAndServesThemById() throws Exception {
+        User user = generationService.provisionEmployee("retention-ada@example.com").getUser();
+        byte[] firstPdf = render("Ada", "Software Engineer");
+        byte[] secondPdf = render("Ada", "Senior Software Engineer");
+        OfferLetter first = offerLetterService.saveOfferLetter(user, "AdaSmith.pdf", firstPdf);
+        OfferLetter second = offerLetterService.saveOfferLetter(user, "AdaSmith.pdf", secondPdf);
+        OfferLetter latest = offerLetterService.saveOfferLetter(user, "AdaSmith.pdf", render("Ada", "Staff Engineer"));
+
+        ReflectionTestUtils.setField(retentionService, "keepLatestPerUser", 1);
+        ReflectionTestUtils.setField(retentionService, "archiveAfterMonths", 0);
+        assertTrue(retentionService.compact() >= 2);
+
+        // Only the latest letter stays in the hot table
+        assertEquals(List.of(latest.getId()), offerLetterService.getOfferLettersForUser(user).stream().map(OfferLetter::getId).toList());
+        assertTrue(offerLetterRepository.findById(first.getId()).isEmpty());
+        assertFalse(blobStore.exists(first.getContentRef()), "Unreferenced blobs are deleted");
+
+        // Archived letters keep their ID, metadata and exact content
+        OfferLetter archived = offerLetterService.getOfferLetterById(first.getId()).orElseThrow();
+        assertEquals(user.getId(), archived.getUser().getId());
+        assertEquals(first.getContentHash(), archived.getContentHash());
+        assertTrue(offerLetterService.localContentPath(archived).isEmpty());
+        assertArrayEquals(firstPdf, offerLetterService.readContent(archived));
+        assertArrayEquals(secondPdf, offerLetterService.readContent(offerLetterService.getOfferLetterById(second.getId()).orElseThrow()));
+        assertEquals(2, offerLetterService.getOfferLettersWithUser(List.of(first.getId(), second.getId(), latest.getId())).stream()
+                .filter(o -> OfferLetterArchiveStore.isArchiveRef(o.getContentRef())).count());
+
+        // Running again finds nothing more to archive for this user
+        retentionService.compact();
+        assertEquals(1, offerLetterService.getOfferLettersForUser(user).size());
+
+        // The segment is deleted with its last letter, also when both are removed at once
+        String segment = archivedOfferLetterRepository.findById(first.getId()).orElseThrow().getSegment();
+        String archivedRef = archived.getContentRef();
+        CompletableFuture<Boolean> removeFirst = CompletableFuture.supplyAsync(() -> offerLetterService.removeOfferLetterById(first.getId()));
+        assertTrue(offerLetterService.removeOfferLetterById(second.getId()));
+        assertTrue(removeFirst.get());
+        assertTrue(offerLetterService.getOfferLetterById(first.getId()).isEmpty());
+        assertEquals(0, archivedOfferLetterRepository.countBySegment(segment));
+        assertThrows(NoSuchFileException.class, () -> archiveStore.read(archivedRef));
+    }
+
+    /**
+     * Verify that letters past the age limit are archived except for the user's latest letter.
+     */
+    @Test
+    public void testArchivesByAgeButKeepsTheLatestLetter() throws Exception {
+        User user = generationService.provisionEmployee("retention-grace@example.com").getUser();
+        OfferLetter older = offerLetterService.saveOfferLetter(user, "GraceSmith.pdf", render("Grace", "Software Engineer"));
+        OfferLetter latest = offerLetterService.saveOfferLetter(user, "GraceSmith.pdf", render("Grace", "Staff Engineer"));
+        jdbcTemplate.update("UPDATE offer_letters SET created_at = ? WHERE id = ?", LocalDateTime.now().minusMonths(25), older.getId());
+        jdbcTemplate.update("UPDATE offer_letters SET created_at = ? WHERE id = ?", LocalDateTime.now().minusMonths(24), latest.getId());
+
+        ReflectionTestUtils.setField(retentionService, "keepLatestPerUser", 0);
+        ReflectionTestUtils.setField(retentionService, "archiveAfterMonths", 12);
+        retentionService.compact();
+
+        assertTrue(offerLetterRepository.findById(older.getId()).isEmpty());
+        assertTrue(archivedOfferLetterRepository.findById(older.getId()).isPresent());
+        assertTrue(offerLetterRepository.findById(latest.getId()).isPresent());
+    }
+
+    /**
+     * Verify that a segment size limit below one letter still archives every letter, one per segment.
+     */
+    @Test
+    public void testTinySegmentLimitWritesOneLetterPerSegment() throws Exception {
+        User user = generationService.provisionEmployee("retention-linus@example.com").getUser();
+        OfferLetter first = offerLetterService.saveOfferLetter(user, "LinusSmith.pdf", render("Linus", "Software Engineer"));
+        OfferLetter second = offerLetterService.saveOfferLetter(user, "LinusSmith.pdf", render("Linus", "Senior Software Engineer"));
+        offerLetterService.saveOfferLetter(user, "LinusSmith.pdf", render("Linus", "Staff Engineer"));
+
+        ReflectionTestUtils.setField(retentionService, "keepLatestPerUser", 1);
+        ReflectionTestUtils.setField(retentionService, "archiveAfterMonths", 0);
+        ReflectionTestUtils.setField(retentionService, "segmentMaxBytes", 0L);
+        retentionService.compact();
+
+        String firstSegment = archivedOfferLetterRepository.findById(first.getId()).orElseThrow().getSegment();
+        String secondSegment = archivedOfferLetterRepository.findById(second.getId()).orElseThrow().getSegment();
+        assertNotEquals(firstSegment, secondSegment);
+    }
+
+    private byte[] render(String firstName, String role) throws Exception {
+        FormData formData = new FormData();
+        formData.setFirstName(firstName);
+        formData.setLastName("Smith");
+        formData.setEmail(firstName.toLowerCase() + "@example.com");
+        formData.setDomain("Engineering");
+        formData.setManager("John Smith");
+        formData.setRole(role);
+        formData.setJoiningDate(LocalDate.of(2025, 1, 6));
+        return generationService.render(formData);
+    }
+}
@@ -0,0 +1,102 @@
+package org.acentrik.service;
+
+import org.acentrik.config.OfferLetterContentMigration;
+import org.acentrik.model.OfferLetter;
+import org.acentrik.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OfferLetterService}.
+ */
+@SpringBootTest
+public class OfferLetterServiceTest {
+
+    @Autowired
+    private OfferLetterService offerLetterService;
+
+    @Autowired
+    private OfferLetterGenerationService generationService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private OfferLetterContentMigration contentMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Verify that letters saved while others sharing their PDF are removed keep their content,
+     * and the PDF is deleted with the last letter.
+     */
+    @Test
+    public void testConcurrentSaveAndRemoveKeepSharedContent() throws Exception {
+        User user = generationService.provisionEmployee("shared-content@example.com").getUser();
+        byte[] content = "%PDF-1.7 shared offer letter".getBytes(StandardCharsets.UTF_8);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<OfferLetter>> saved = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++) {
+                saved.add(executor.submit(() -> {
+                    OfferLetter offerLetter = offerLetterService.saveOfferLetter(user, "Shared.pdf", content);
+                    assertTrue(offerLetterService.removeOfferLetterById(offerLetter.getId()));
+                    return offerLetterService.saveOfferLetter(user, "Shared.pdf", content);
+                }));
+            }
+            for (Future<OfferLetter> future : saved) {
+                assertTrue(blobStore.exists(future.get().getContentRef()), "A saved letter must keep its content");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        String contentRef = saved.get(0).get().getContentRef();
+        for (Future<OfferLetter> future : saved) {
+            offerLetterService.removeOfferLetterById(future.get().getId());
+        }
+        assertFalse(blobStore.exists(contentRef), "The content is deleted with the last letter");
+    }
+
+    /**
+     * Verify that a letter still in the legacy content column is served from it, and the
+     * migration moves it to the blob store and drops the column.
+     */
+    @Test
+    public void testLegacyContentIsServedUntilMigrated() throws Exception {
+        User user = generationService.provisionEmployee("legacy-content@example.com").getUser();
+        byte[] content = "%PDF-1.7 legacy offer letter".getBytes(StandardCharsets.UTF_8);
+        jdbcTemplate.execute("ALTER TABLE offer_letters ADD COLUMN content BLOB");
+        jdbcTemplate.update("INSERT INTO offer_letters (user_id, file_name, content, created_at) VALUES (?, ?, ?, ?)",
+                user.getId(), "Legacy.pdf", content, LocalDateTime.now());
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM offer_letters WHERE file_name = 'Legacy.pdf'", Long.class);
+
+        OfferLetter legacy = offerLetterService.getOfferLetterById(id).orElseThrow();
+        assertNull(legacy.getContentRef());
+        assertTrue(offerLetterService.localContentPath(legacy).isEmpty());
+        assertArrayEquals(content, offerLetterService.readContent(legacy));
+
+        contentMigration.migrate();
+        OfferLetter migrated = offerLetterService.getOfferLetterById(id).orElseThrow();
+        assertTrue(blobStore.exists(migrated.getContentRef()));
+        assertArrayEquals(content, offerLetterService.readContent(migrated));
+        assertTrue(offerLetterService.removeOfferLetterById(id));
+    }
+}
@@ -0,0 +1,166 @@
+package org.acentrik.service;
+
+import com.itextpdf.kernel.pdf.PdfAConformanceLevel;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acentrik.model.FormData;
+import org.acentrik.model.OfferLetterOutputProfile;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OfferLetterTemplateService}.
+ */
+public class OfferLetterTemplateServiceTest {
+
+    /**
+     * Verify that repeated renders from the same prepared template bind the form data of each request.
+     */
+    @Test
+    public void testRenderBindsFormDataOnSharedTemplate() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OfferLetterTemplateService templateService = newTemplateService(registry);
+        long totalBytes = 0;
+
+        for (String firstName : new String[]{"Alice", "Bob"}) {
+            FormData formData = new FormData();
+            formData.setFirstName(firstName);
+            formData.setLastName("Smith");
+            formData.setEmail(firstName.toLowerCase() + "@example.com");
+            formData.setManager("Jane Doe");
+            formData.setRole("Business Analyst");
+            formData.setJoiningDate(LocalDate.of(2025, 6, 2));
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            templateService.render(formData, baos);
+            totalBytes += baos.size();
+
+            try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())))) {
+                String text = PdfTextExtractor.getTextFromPage(pdf.getFirstPage());
+                assertTrue(text.contains("Dear " + firstName + " Smith,"), "Letter should greet the candidate");
+                assertTrue(text.contains("Jun-02-2025"), "Letter should contain the joining date");
+                assertTrue(text.contains("Acentrik Technology Solutions LLC"), "Letter should contain the header");
+            }
+        }
+
+        // Every render is timed and its bytes are counted
+        assertEquals(2, registry.get("offerletter.render").timer().count());
+        assertEquals(totalBytes, registry.get("offerletter.pdf.produced").counter().count());
+        assertEquals(2, registry.get("offerletter.pdf.size").summary().count());
+    }
+
+    /**
+     * Verify that the compressed profile writes object streams and a smaller file, and that the
+     * PDF/A profile embeds its font and declares PDF/A-2b conformance.
+     */
+    @Test
+    public void testOutputProfiles() throws Exception {
+        OfferLetterTemplateService templateService = newTemplateService(new SimpleMeterRegistry());
+
+        byte[] standard = render(templateService, OfferLetterOutputProfile.STANDARD);
+        byte[] compressed = render(templateService, OfferLetterOutputProfile.COMPRESSED);
+        byte[] archival = render(templateService, OfferLetterOutputProfile.PDF_A_2B);
+
+        assertTrue(compressed.length < standard.length, "Compressed letter should be smaller than the standard one");
+        assertTrue(new String(compressed, StandardCharsets.ISO_8859_1).contains("/ObjStm"), "Compressed letter should use object streams");
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(archival)))) {
+            assertEquals(PdfAConformanceLevel.PDF_A_2B, pdf.getReader().getPdfAConformanceLevel());
+            assertTrue(PdfTextExtractor.getTextFromPage(pdf.getFirstPage()).contains("Dear Jane Smith,"), "Letter should greet the candidate");
+        }
+        assertTrue(new String(archival, StandardCharsets.ISO_8859_1).contains("/FontFile2"), "PDF/A letter should embed its font");
+    }
+
+    /**
+     * Verify that names the standard font can't display are written with the embedded font.
+     */
+    @Test
+    public void testNonLatinNameUsesEmbeddedFont() throws Exception {
+        OfferLetterTemplateService templateService = newTemplateService(new SimpleMeterRegistry());
+
+        byte[] latin = render(templateService, OfferLetterOutputProfile.STANDARD);
+        byte[] cyrillic = render(templateService, OfferLetterOutputProfile.STANDARD, "Анна", "Смирнова");
+
+        assertFalse(new String(latin, StandardCharsets.ISO_8859_1).contains("/FontFile2"), "Latin names should use the standard font");
+        assertTrue(new String(cyrillic, StandardCharsets.ISO_8859_1).contains("/FontFile2"), "Cyrillic names should embed a font");
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(cyrillic)))) {
+            assertTrue(PdfTextExtractor.getTextFromPage(pdf.getFirstPage()).contains("Dear Анна Смирнова,"), "Letter should greet the candidate");
+        }
+    }
+
+    /**
+     * Verify that the fingerprint follows the rendered inputs, including the letter date, and
+     * ignores differences that don't change the letter.
+     */
+    @Test
+    public void testFingerprintCoversRenderInputs() throws Exception {
+        OfferLetterTemplateService templateService = newTemplateService(new SimpleMeterRegistry());
+        LocalDate today = LocalDate.of(2025, 5, 1);
+        FormData formData = formData("Jane", "Smith", OfferLetterOutputProfile.STANDARD);
+        String fingerprint = templateService.fingerprint(formData, today);
+
+        FormData sameLetter = formData("Jane ", "Smith", OfferLetterOutputProfile.STANDARD);
+        sameLetter.setEmail("Jane@Example.com");
+        assertEquals(fingerprint, templateService.fingerprint(sameLetter, today));
+
+        // The default profile is resolved before fingerprinting
+        assertEquals(fingerprint, templateService.fingerprint(formData("Jane", "Smith", null), today));
+
+        assertNotEquals(fingerprint, templateService.fingerprint(formData, today.plusDays(1)), "The letter date is printed");
+        assertNotEquals(fingerprint, templateService.fingerprint(formData("Jane", "Smith", OfferLetterOutputProfile.COMPRESSED), today));
+        FormData otherRole = formData("Jane", "Smith", OfferLetterOutputProfile.STANDARD);
+        otherRole.setRole("Data Analyst");
+        assertNotEquals(fingerprint, templateService.fingerprint(otherRole, today));
+        // Field boundaries are part of the fingerprint
+        assertNotEquals(templateService.fingerprint(formData("Ja", "neSmith", null), today),
+                templateService.fingerprint(formData("Jane", "Smith", null), today));
+    }
+
+    private byte[] render(OfferLetterTemplateService templateService, OfferLetterOutputProfile profile) throws Exception {
+        return render(templateService, profile, "Jane", "Smith");
+    }
+
+    private byte[] render(OfferLetterTemplateService templateService, OfferLetterOutputProfile profile,
+                          String firstName, String lastName) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        templateService.render(formData(firstName, lastName, profile), baos);
+        return baos.toByteArray();
+    }
+
+    private static FormData formData(String firstName, String lastName, OfferLetterOutputProfile profile) {
+        FormData formData = new FormData();
+        formData.setFirstName(firstName);
+        formData.setLastName(lastName);
+        formData.setEmail("jane@example.com");
+        formData.setManager("Jane Doe");
+        formData.setRole("Business Analyst");
+        formData.setJoiningDate(LocalDate.of(2025, 6, 2));
+        formData.setOutputProfile(profile);
+        return formData;
+    }
+
+    private OfferLetterTemplateService newTemplateService(SimpleMeterRegistry registry) throws Exception {
+        OfferLetterTemplateService templateService = new OfferLetterTemplateService();
+        Field field = OfferLetterTemplateService.class.getDeclaredField("metrics");
+        field.setAccessible(true);
+        field.set(templateService, new OfferLetterMetrics(registry));
+        Field resourcesField = OfferLetterTemplateService.class.getDeclaredField("resources");
+        resourcesField.setAccessible(true);
+        resourcesField.set(templateService, new PdfResourceRegistry(new DefaultResourceLoader(), 1 << 25, 1 << 25, registry));
+        templateService.init();
+        return templateService;
+    }
+}
@@ -0,0 +1,58 @@
+package org.acentrik.service;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.FileNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PdfResourceRegistry}.
+ */
+public class PdfResourceRegistryTest {
+
+    private static final String LOGO = "classpath:static/img1.png";
+    private static final String FONT = "classpath:fonts/DejaVuSerif.ttf";
+
+    /**
+     * Verify that resources are loaded once, shared, and reported in the size metrics.
+     */
+    @Test
+    public void testResourcesAreLoadedOnceAndShared() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PdfResourceRegistry registry = new PdfResourceRegistry(new DefaultResourceLoader(), 1 << 25, 1 << 25, meterRegistry);
+
+        FontProgram font = registry.getFont(FONT);
+        assertSame(font, registry.getFont(FONT));
+        assertSame(registry.getFont(StandardFonts.TIMES_ROMAN), registry.getFont(StandardFonts.TIMES_ROMAN));
+        ImageData logo = registry.getImage(LOGO);
+        assertSame(logo, registry.getImage(LOGO));
+
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "pdf-fonts").tag("result", "hit").functionCounter().count());
+        assertTrue(meterRegistry.get("pdf.resources.size").tag("type", "font").gauge().value() > 300_000, "Font file should be weighed by its size");
+        assertTrue(meterRegistry.get("pdf.resources.size").tag("type", "image").gauge().value() > 0);
+    }
+
+    /**
+     * Verify that resources larger than the cache are loaded but not kept, and that missing
+     * resources are reported.
+     */
+    @Test
+    public void testEvictsBySizeAndReportsMissingResources() throws Exception {
+        PdfResourceRegistry registry = new PdfResourceRegistry(new DefaultResourceLoader(), 1000, 1000, new SimpleMeterRegistry());
+
+        FontProgram font = registry.getFont(FONT);
+        assertNotSame(font, registry.getFont(FONT));
+
+        assertThrows(FileNotFoundException.class, () -> registry.getImage("classpath:static/missing.png"));
+    }
+}
@@ -0,0 +1,65 @@
+package org.acentrik.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acentrik.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link UserCache}.
+ */
+public class UserCacheTest {
+
+    @Test
+    public void testCachesFoundUsersUntilInvalidated() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        UserCache cache = new UserCache(100, 60, new StaticListableBeanFactory(java.util.Map.of("registry", registry))
+                .getBeanProvider(MeterRegistry.class));
+        AtomicInteger loads = new AtomicInteger();
+        User user = new User("jane@example.com", "hash", "USER");
+
+        cache.get("jane@example.com", username -> { loads.incrementAndGet(); return Optional.of(user); });
+        cache.get("jane@example.com", username -> { loads.incrementAndGet(); return Optional.of(user); });
+        assertEquals(1, loads.get());
+
+        cache.invalidate("jane@example.com");
+        cache.get("jane@example.com", username -> { loads.incrementAndGet(); return Optional.of(user); });
+        assertEquals(2, loads.get());
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", "users").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void testLoadsOutsideTheCacheLock() {
+        UserCache cache = new UserCache(100, 60, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        AtomicInteger loads = new AtomicInteger();
+        User user = new User("jane@example.com", "hash", "USER");
+
+        // The user changes while it is being loaded: the loaded row is returned but not kept
+        cache.get("jane@example.com", username -> {
+            loads.incrementAndGet();
+            cache.invalidate(username);
+            return Optional.of(user);
+        });
+        cache.get("jane@example.com", username -> { loads.incrementAndGet(); return Optional.of(user); });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDoesNotCacheUnknownUsers() {
+        UserCache cache = new UserCache(100, 60, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertTrue(cache.get("nobody", username -> { loads.incrementAndGet(); return Optional.empty(); }).isEmpty());
+        assertTrue(cache.get("nobody", username -> { loads.incrementAndGet(); return Optional.empty(); }).isEmpty());
+        assertEquals(2, loads.get(), "Unknown usernames should be looked up again, e.g. after registration");
+    }
+}